@@ -0,0 +1,95 @@
+package com.example.account.benchmark;
+
+import com.example.account.dto.ErrorResponse;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.GlobalExceptionHandler;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실패 경로 비용 (lock 경합 시 ACCOUNT_TRANSACTION_LOCK)
+ * 1. stackTraceException : 이전 구현처럼 매번 stack trace 를 만드는 예외 + 응답 생성
+ * 2. preallocatedException : AccountException.of + ErrorResponse.of
+ * 3. exceptionHandler : GlobalExceptionHandler 까지 (메트릭 / 샘플링 로그 포함)
+ * 호출 깊이를 흉내내기 위해 몇 단계 아래에서 던진다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FailurePathBenchmark {
+    private static final int CALL_DEPTH = 32;
+
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Setup
+    public void setUp() {
+        globalExceptionHandler = new GlobalExceptionHandler(new AccountMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ErrorCode stackTraceException() {
+        try {
+            throwAt(CALL_DEPTH, true);
+            return null;
+        } catch (StackTraceAccountException e) {
+            return new StackTraceErrorResponse(e.errorCode, e.errorCode.getDescription()).errorCode;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ErrorResponse preallocatedException() {
+        try {
+            throwAt(CALL_DEPTH, false);
+            return null;
+        } catch (AccountException e) {
+            return ErrorResponse.of(e.getErrorCode());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ErrorResponse exceptionHandler() {
+        try {
+            throwAt(CALL_DEPTH, false);
+            return null;
+        } catch (AccountException e) {
+            return globalExceptionHandler.handleAccountException(e);
+        }
+    }
+
+    private static void throwAt(int depth, boolean withStackTrace) {
+        if (depth > 0) {
+            throwAt(depth - 1, withStackTrace);
+            return;
+        }
+        if (withStackTrace) {
+            throw new StackTraceAccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    private static class StackTraceAccountException extends RuntimeException {
+        private final ErrorCode errorCode;
+
+        StackTraceAccountException(ErrorCode errorCode) {
+            super(errorCode.getDescription());
+            this.errorCode = errorCode;
+        }
+    }
+
+    private static class StackTraceErrorResponse {
+        private final ErrorCode errorCode;
+        private final String errorMessage;
+
+        StackTraceErrorResponse(ErrorCode errorCode, String errorMessage) {
+            this.errorCode = errorCode;
+            this.errorMessage = errorMessage;
+        }
+    }
+}
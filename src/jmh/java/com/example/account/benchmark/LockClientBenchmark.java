@@ -0,0 +1,92 @@
+package com.example.account.benchmark;
+
+import com.example.account.lock.LockNodeRing;
+import com.example.account.lock.PendingPublishes;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * lock -> publish -> unlock (잔액 사용 요청의 Redis 왕복) 처리량 (embedded redis)
+ * 연결 풀 / Netty 스레드 크기와 unlock 방식(따로 보내기, publish 와 파이프라인)별로 비교한다.
+ * 스레드마다 다른 계좌를 사용하므로 경합 없는 비용을 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class LockClientBenchmark {
+    private static final int REDIS_PORT = 6389;
+    private static final String TOPIC = "bench:balance-events";
+
+    @Param({"8", "64"})
+    private int connectionPoolSize;
+
+    @Param({"4", "32"})
+    private int nettyThreads;
+
+    @Param({"separate", "pipelined"})
+    private String release;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private LockNodeRing lockNodeRing;
+    private RTopic topic;
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+        private final String accountNumber = String.valueOf(1_000_000_000 + SEQUENCE.getAndIncrement());
+        private final String lockKey = "ACLK: " + accountNumber;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress("redis://127.0.0.1:" + REDIS_PORT)
+                .setConnectionPoolSize(connectionPoolSize)
+                .setConnectionMinimumIdleSize(Math.min(connectionPoolSize, 24));
+        config.setNettyThreads(nettyThreads);
+        config.setCodec(StringCodec.INSTANCE);
+        redissonClient = Redisson.create(config);
+        lockNodeRing = LockNodeRing.single(redissonClient);
+        topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public void lockPublishUnlock(ThreadAccount threadAccount) throws InterruptedException {
+        RLock lock = lockNodeRing.getLock(threadAccount.accountNumber, threadAccount.lockKey);
+        lock.tryLock(1, 15, TimeUnit.SECONDS);
+
+        if ("pipelined".equals(release)) {
+            PendingPublishes.open();
+            PendingPublishes.defer(TOPIC, StringCodec.INSTANCE, threadAccount.accountNumber);
+            List<PendingPublishes.Publish> publishes = PendingPublishes.close();
+            lockNodeRing.unlock(threadAccount.accountNumber, threadAccount.lockKey, redissonClient, publishes);
+        } else {
+            topic.publish(threadAccount.accountNumber);
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.account.benchmark;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.lock.LockNodeRing;
+import com.example.account.lock.LockRegistry;
+import com.example.account.lock.NodeHeartbeat;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.service.LockLeaseManager;
+import com.example.account.service.LockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LockService lock / unLock 왕복 (embedded redis)
+ * 스레드마다 다른 계좌를 사용하므로 경합 없는 비용을 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockServiceBenchmark {
+    private static final int REDIS_PORT = 6392;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private NodeHeartbeat nodeHeartbeat;
+    private LockService lockService;
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+        private final String accountNumber = String.valueOf(1_000_000_000 + SEQUENCE.getAndIncrement());
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+        LockNodeRing lockNodeRing = LockNodeRing.single(redissonClient);
+        AccountMetrics accountMetrics = new AccountMetrics(new SimpleMeterRegistry());
+        NodeIdentity nodeIdentity = new NodeIdentity();
+        LockRegistry lockRegistry = new LockRegistry(lockNodeRing, nodeIdentity, "bench:lock-registry");
+        nodeHeartbeat = new NodeHeartbeat(redissonClient, nodeIdentity, "bench:lock-node:", 1_000L, 5_000L);
+        nodeHeartbeat.start();
+        lockService = new LockService(lockNodeRing, accountMetrics,
+                new LockLeaseManager(lockNodeRing, redissonClient, nodeIdentity, accountMetrics, lockRegistry),
+                redissonClient, lockRegistry, nodeHeartbeat);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        nodeHeartbeat.stop();
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public void lockAndUnlock(ThreadAccount threadAccount) {
+        lockService.lock(threadAccount.accountNumber, 1_000L, 15_000L);
+        lockService.unLock(threadAccount.accountNumber);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void lockAndUnlock_4Threads(ThreadAccount threadAccount) {
+        lockService.lock(threadAccount.accountNumber, 1_000L, 15_000L);
+        lockService.unLock(threadAccount.accountNumber);
+    }
+}
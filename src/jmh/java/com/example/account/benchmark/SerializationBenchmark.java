@@ -0,0 +1,61 @@
+package com.example.account.benchmark;
+
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.UseBalance;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 JSON 직렬화 (스프링 MVC 와 같은 ObjectMapper 설정)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+    private ObjectWriter useBalanceWriter;
+    private ObjectWriter queryTransactionWriter;
+    private UseBalance.Response useBalanceResponse;
+    private QueryTransactionResponse queryTransactionResponse;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        useBalanceWriter = objectMapper.writerFor(UseBalance.Response.class);
+        queryTransactionWriter = objectMapper.writerFor(QueryTransactionResponse.class);
+
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 6, 1, 23, 26, 14, 671_859_000);
+        useBalanceResponse = UseBalance.Response.builder()
+                .accountNumber("1000000000")
+                .transactionResult(TransactionResultType.S)
+                .transactionId("c2033bb6d82a4250aecf8e27c49b63f6")
+                .amount(1000L)
+                .transactedAt(transactedAt)
+                .build();
+        queryTransactionResponse = QueryTransactionResponse.builder()
+                .accountNumber("1000000000")
+                .transactionType(TransactionType.USE)
+                .transactionResult(TransactionResultType.S)
+                .transactionId("c2033bb6d82a4250aecf8e27c49b63f6")
+                .amount(1000L)
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] useBalanceResponse() throws JsonProcessingException {
+        return useBalanceWriter.writeValueAsBytes(useBalanceResponse);
+    }
+
+    @Benchmark
+    public byte[] queryTransactionResponse() throws JsonProcessingException {
+        return queryTransactionWriter.writeValueAsBytes(queryTransactionResponse);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.account.benchmark;
+
+import com.example.account.service.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 아이디 생성
+ * 이전 구현(UUID.toString().replace)과 TransactionIdGenerator 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionIdBenchmark {
+    @Benchmark
+    public String uuidToStringReplace() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public String transactionIdGenerator() {
+        return TransactionIdGenerator.generate();
+    }
+}
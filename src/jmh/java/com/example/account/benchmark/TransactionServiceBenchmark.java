@@ -0,0 +1,66 @@
+package com.example.account.benchmark;
+
+import com.example.account.AccountApplication;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService 잔액 사용 / 취소 (H2 in-memory, 실제 JPA 트랜잭션)
+ * ./gradlew jmh -PjmhIncludes=TransactionServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionServiceBenchmark {
+    private static final long USER_ID = 1L;
+    private static final long AMOUNT = 1000L;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String accountNumber;
+    private String useTransactionId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.redis.port=6391",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=warn"
+                )
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+
+        AccountDto account = context.getBean(AccountService.class)
+                .createAccount(USER_ID, Long.MAX_VALUE / 2);
+        accountNumber = account.getAccountNumber();
+        useTransactionId = transactionService.useBalance(USER_ID, accountNumber, AMOUNT)
+                .getTransactionId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance() {
+        return transactionService.useBalance(USER_ID, accountNumber, AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionDto cancelBalance() {
+        // 부분 취소만 막고 있으므로 같은 거래를 반복 취소한다.
+        return transactionService.cancelBalance(useTransactionId, accountNumber, AMOUNT);
+    }
+}
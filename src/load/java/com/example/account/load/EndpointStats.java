@@ -0,0 +1,67 @@
+package com.example.account.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별 지연 시간 (마이크로초)
+ * responseTime : 의도한 시작 시각부터 응답까지 (coordinated omission 보정)
+ * serviceTime  : 실제로 요청을 보낸 시각부터 응답까지
+ */
+public class EndpointStats {
+    private final Operation operation;
+    private final Histogram responseTime = new ConcurrentHistogram(3);
+    private final Histogram serviceTime = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    public void record(long intendedStartNanos, long sentNanos, long completedNanos, boolean error) {
+        responseTime.recordValue(Math.max(0L, (completedNanos - intendedStartNanos) / 1000));
+        serviceTime.recordValue(Math.max(0L, (completedNanos - sentNanos) / 1000));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public void reset() {
+        responseTime.reset();
+        serviceTime.reset();
+        errors.reset();
+    }
+
+    public long getCount() {
+        return responseTime.getTotalCount();
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void printSummary(PrintStream out, double seconds) {
+        out.printf("%-32s count=%d errors=%d throughput=%.1f/s%n",
+                operation.getEndpoint(), getCount(), errors.sum(), getCount() / seconds);
+        printPercentiles(out, "  response (corrected)", responseTime);
+        printPercentiles(out, "  service  (uncorrected)", serviceTime);
+    }
+
+    public void printDistribution(PrintStream out) {
+        // 단위: 밀리초
+        responseTime.outputPercentileDistribution(out, 1000.0);
+    }
+
+    private static void printPercentiles(PrintStream out, String label, Histogram histogram) {
+        out.printf("%-24s p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                label,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.account.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 설정 (-Pload.xxx=... 로 gradle 에서 전달, 시스템 프로퍼티로 읽는다)
+ * load.rate        : 초당 요청 수 (open-loop 도착률)
+ * load.duration    : 측정 시간(초)
+ * load.warmup      : 워밍업 시간(초, 결과에서 제외)
+ * load.accounts    : 거래 대상 계좌 수
+ * load.zipf        : 계좌 선택 Zipf 지수 (0 이면 균등, 클수록 소수 계좌에 몰림)
+ * load.mix         : 요청 비율 (create:2,use:50,cancel:18,query:30)
+ * load.clientThreads : HTTP 클라이언트 스레드 수
+ * load.reportDir   : 결과 디렉토리
+ */
+public class LoadConfig {
+    private final int rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int accounts;
+    private final double zipfExponent;
+    private final Map<Operation, Integer> mix;
+    private final int clientThreads;
+    private final String reportDir;
+
+    private LoadConfig(
+            int rate, int durationSeconds, int warmupSeconds, int accounts,
+            double zipfExponent, Map<Operation, Integer> mix, int clientThreads, String reportDir
+    ) {
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.accounts = accounts;
+        this.zipfExponent = zipfExponent;
+        this.mix = mix;
+        this.clientThreads = clientThreads;
+        this.reportDir = reportDir;
+    }
+
+    public static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Integer.getInteger("load.rate", 200),
+                Integer.getInteger("load.duration", 30),
+                Integer.getInteger("load.warmup", 5),
+                Integer.getInteger("load.accounts", 100),
+                Double.parseDouble(System.getProperty("load.zipf", "1.1")),
+                parseMix(System.getProperty("load.mix", "create:2,use:50,cancel:18,query:30")),
+                Integer.getInteger("load.clientThreads", 16),
+                System.getProperty("load.reportDir", "build/reports/load")
+        );
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry : " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no positive weight : " + value);
+        }
+        return mix;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public int getClientThreads() {
+        return clientThreads;
+    }
+
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s, duration=" + durationSeconds + "s, warmup=" + warmupSeconds
+                + "s, accounts=" + accounts + ", zipf=" + zipfExponent + ", mix=" + mix
+                + ", clientThreads=" + clientThreads;
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.account.load;
+
+import com.example.account.AccountApplication;
+import com.example.account.service.AccountService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP API 부하 테스트 (./gradlew loadTest -Pload.rate=500 -Pload.duration=60)
+ * 1. 애플리케이션을 임의 포트로 띄운다. (embedded redis + H2)
+ * 2. 사용자 / 계좌를 미리 만든다.
+ * 3. 고정된 도착률(open-loop)로 요청을 보낸다. 응답을 기다리지 않고 예정된 시각에 다음 요청을 보내며,
+ *    지연 시간은 예정된 시작 시각부터 잰다. (coordinated omission 보정)
+ * 4. 거래 대상 계좌는 Zipf 분포로 골라 소수의 계좌에 요청이 몰리게 한다.
+ * 5. 엔드포인트별 처리량과 HdrHistogram 백분위를 출력하고 reportDir 에 남긴다.
+ */
+public class LoadTestRunner {
+    private static final long LOAD_USER_ID_OFFSET = 1_000_000L;
+    private static final int ACCOUNTS_PER_USER = 10;
+    private static final long INIT_BALANCE = 1_000_000_000_000L;
+    private static final int RECENT_TRANSACTIONS = 4096;
+
+    private final LoadConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicReferenceArray<UsedTransaction> recentTransactions =
+            new AtomicReferenceArray<>(RECENT_TRANSACTIONS);
+    private final AtomicLong recentSequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong createUserSequence = new AtomicLong();
+
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<String> accountNumbers;
+    private List<Long> accountOwners;
+    private long createUserFrom;
+    private int createUsers;
+    private ZipfSampler zipfSampler;
+    private Operation[] operationTable;
+
+    public LoadTestRunner(LoadConfig config) {
+        this.config = config;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        System.out.println("Load test : " + config);
+
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(AccountApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.redis.port=" + System.getProperty("load.redisPort", "6393"),
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=warn"
+                )
+                .run(args)) {
+            LoadTestRunner runner = new LoadTestRunner(config);
+            runner.prepare(context);
+            try {
+                runner.run();
+            } finally {
+                runner.clientExecutor.shutdownNow();
+            }
+        }
+    }
+
+    void prepare(ServletWebServerApplicationContext context) {
+        baseUrl = "http://127.0.0.1:" + context.getWebServer().getPort();
+        clientExecutor = Executors.newFixedThreadPool(config.getClientThreads());
+        httpClient = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        AccountService accountService = context.getBean(AccountService.class);
+
+        // 계좌는 사용자당 10개까지만 만들 수 있으므로 필요한 만큼 사용자를 만든다.
+        // (data.sql 사용자와 겹치지 않도록 큰 아이디를 직접 넣는다)
+        int accountUsers = (config.getAccounts() + ACCOUNTS_PER_USER - 1) / ACCOUNTS_PER_USER;
+        long expectedCreates = (long) config.getRate()
+                * (config.getWarmupSeconds() + config.getDurationSeconds())
+                * config.getMix().getOrDefault(Operation.CREATE, 0)
+                / config.getMix().values().stream().mapToInt(Integer::intValue).sum();
+        createUsers = (int) (expectedCreates / ACCOUNTS_PER_USER) + 1;
+        createUserFrom = LOAD_USER_ID_OFFSET + accountUsers;
+        for (long userId = LOAD_USER_ID_OFFSET; userId < createUserFrom + createUsers; userId++) {
+            jdbcTemplate.update(
+                    "insert into account_user(id, name, created_at, updated_at)"
+                            + " values (?, ?, now(), now())",
+                    userId, "load-" + userId);
+            jdbcTemplate.update(
+                    "insert into account_user_counter(account_user_id, active_account_count)"
+                            + " values (?, 0)",
+                    userId);
+        }
+
+        accountNumbers = new ArrayList<>(config.getAccounts());
+        accountOwners = new ArrayList<>(config.getAccounts());
+        for (int i = 0; i < config.getAccounts(); i++) {
+            long userId = LOAD_USER_ID_OFFSET + i / ACCOUNTS_PER_USER;
+            accountNumbers.add(accountService.createAccount(userId, INIT_BALANCE).getAccountNumber());
+            accountOwners.add(userId);
+        }
+
+        zipfSampler = new ZipfSampler(config.getAccounts(), config.getZipfExponent());
+        List<Operation> table = new ArrayList<>();
+        config.getMix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        operationTable = table.toArray(new Operation[0]);
+    }
+
+    void run() throws IOException, InterruptedException {
+        System.out.println("Warming up for " + config.getWarmupSeconds() + "s");
+        drive(config.getWarmupSeconds());
+        awaitInFlight();
+        stats.values().forEach(EndpointStats::reset);
+
+        System.out.println("Measuring for " + config.getDurationSeconds() + "s");
+        long started = System.nanoTime();
+        drive(config.getDurationSeconds());
+        awaitInFlight();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        report(System.out, seconds);
+        writeReports(seconds);
+    }
+
+    /**
+     * 예정된 시각마다 요청을 보낸다. 생성 스레드가 밀리더라도 예정 시각은 그대로 두어
+     * 밀린 시간이 지연 시간에 포함되게 한다.
+     */
+    private void drive(int seconds) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+        long durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart - start >= durationNanos) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intendedStart) {
+                LockSupport.parkNanos(intendedStart - now);
+            }
+            dispatch(intendedStart);
+        }
+    }
+
+    private void dispatch(long intendedStart) {
+        Operation operation = operationTable[ThreadLocalRandom.current().nextInt(operationTable.length)];
+        UsedTransaction usedTransaction = null;
+        if (operation == Operation.CANCEL || operation == Operation.QUERY) {
+            usedTransaction = pickRecentTransaction();
+            if (usedTransaction == null) {
+                operation = Operation.USE;
+            }
+        }
+
+        HttpRequest request = buildRequest(operation, usedTransaction);
+        Operation recorded = operation;
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .whenComplete((response, throwable) -> {
+                    long completed = System.nanoTime();
+                    boolean error = throwable != null || isError(response);
+                    stats.get(recorded).record(intendedStart, sent, completed, error);
+                    if (!error && recorded == Operation.USE) {
+                        rememberTransaction(response.body());
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private HttpRequest buildRequest(Operation operation, UsedTransaction usedTransaction) {
+        switch (operation) {
+            case CREATE:
+                long userId = createUserFrom
+                        + (createUserSequence.getAndIncrement() / ACCOUNTS_PER_USER) % createUsers;
+                return post("/account", "{\"userId\":" + userId + ",\"initBalance\":10000}");
+            case USE:
+                int account = zipfSampler.next();
+                return post("/transaction/use", "{\"userId\":" + accountOwners.get(account)
+                        + ",\"accountNumber\":\"" + accountNumbers.get(account)
+                        + "\",\"amount\":" + randomAmount() + "}");
+            case CANCEL:
+                return post("/transaction/cancel", "{\"transactionId\":\"" + usedTransaction.transactionId
+                        + "\",\"accountNumber\":\"" + usedTransaction.accountNumber
+                        + "\",\"amount\":" + usedTransaction.amount + "}");
+            case QUERY:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/" + usedTransaction.transactionId))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+            default:
+                throw new IllegalStateException("Unknown operation : " + operation);
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long randomAmount() {
+        return ThreadLocalRandom.current().nextLong(1, 100) * 100;
+    }
+
+    private static boolean isError(HttpResponse<String> response) {
+        // 업무 오류는 200 + errorCode 로 응답한다.
+        return response.statusCode() != 200 || response.body().contains("\"errorCode\"");
+    }
+
+    private void rememberTransaction(String body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            UsedTransaction usedTransaction = new UsedTransaction(
+                    node.get("transactionId").asText(),
+                    node.get("accountNumber").asText(),
+                    node.get("amount").asLong());
+            int slot = (int) (recentSequence.getAndIncrement() % RECENT_TRANSACTIONS);
+            recentTransactions.set(slot, usedTransaction);
+        } catch (IOException | NullPointerException e) {
+            // 응답 형식이 다르면 취소 / 조회 대상에서 뺀다.
+        }
+    }
+
+    private UsedTransaction pickRecentTransaction() {
+        long filled = Math.min(recentSequence.get(), RECENT_TRANSACTIONS);
+        if (filled == 0) {
+            return null;
+        }
+        return recentTransactions.get(ThreadLocalRandom.current().nextInt((int) filled));
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void report(PrintStream out, double seconds) {
+        long total = stats.values().stream().mapToLong(EndpointStats::getCount).sum();
+        out.printf("%n=== Load test result (%s) ===%n", config);
+        out.printf("total=%d elapsed=%.1fs throughput=%.1f/s%n", total, seconds, total / seconds);
+        stats.values().stream()
+                .filter(endpointStats -> endpointStats.getCount() > 0)
+                .forEach(endpointStats -> endpointStats.printSummary(out, seconds));
+    }
+
+    private void writeReports(double seconds) throws IOException {
+        Path reportDir = Paths.get(config.getReportDir());
+        Files.createDirectories(reportDir);
+        try (PrintStream out = new PrintStream(
+                Files.newOutputStream(reportDir.resolve("summary.txt")), true, StandardCharsets.UTF_8)) {
+            report(out, seconds);
+        }
+        for (EndpointStats endpointStats : stats.values()) {
+            if (endpointStats.getCount() == 0) {
+                continue;
+            }
+            String fileName = endpointStats.getOperation().name().toLowerCase() + ".hgrm";
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(reportDir.resolve(fileName)), true, StandardCharsets.UTF_8)) {
+                endpointStats.printDistribution(out);
+            }
+        }
+        System.out.println("Reports written to " + reportDir.toAbsolutePath());
+    }
+
+    private static class UsedTransaction {
+        private final String transactionId;
+        private final String accountNumber;
+        private final long amount;
+
+        UsedTransaction(String transactionId, String accountNumber, long amount) {
+            this.transactionId = transactionId;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.account.load;
+
+public enum Operation {
+    CREATE("POST /account"),
+    USE("POST /transaction/use"),
+    CANCEL("POST /transaction/cancel"),
+    QUERY("GET /transaction/{transactionId}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -2,10 +2,22 @@ package com.example.account.aop;
 
 import java.lang.annotation.*;
 
+/**
+ * 요청의 계좌번호(AccountLockIdInterface)로 계좌 lock 을 잡고 실행한다.
+ * lock.adaptive.enabled 이면 관측된 lock 보유 / 대기 시간에 맞춰 조정된다. (LockTimeAdvisor)
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 @Inherited
 public @interface AccountLock {
+    /**
+     * lock 을 기다리는 최대 시간 (밀리초)
+     */
     long tryLockTime() default 5000L;
+
+    /**
+     * lock 을 잡은 노드가 죽었을 때 lock 이 풀리기까지의 시간 (밀리초)
+     */
+    long leaseTime() default 15000L;
 }
@@ -0,0 +1,19 @@
+package com.example.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 샤드를 고르는 데 쓰는 서비스 메서드 파라미터 (sharding.enabled=true 일 때만 의미가 있다)
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+    Type value() default Type.ACCOUNT_NUMBER;
+
+    enum Type {
+        ACCOUNT_NUMBER,
+        USER_ID,
+        TRANSACTION_ID
+    }
+}
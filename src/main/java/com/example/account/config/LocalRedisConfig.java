@@ -6,24 +6,49 @@ import redis.embedded.RedisServer;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class LocalRedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
-    private RedisServer redisServer;
+    /**
+     * lock.nodes 중 로컬 주소인 노드도 embedded redis 로 띄운다. (application-lock-nodes.yml)
+     */
+    @Value("${lock.nodes}")
+    private String[] lockNodes;
+
+    private final List<RedisServer> redisServers = new ArrayList<>();
 
     @PostConstruct
-    public void startRedis() {
-        redisServer = new RedisServer(redisPort);
-        redisServer.start();
+    public void startRedis() throws IOException {
+        start(redisPort);
+        for (String lockNode : lockNodes) {
+            String[] hostAndPort = lockNode.trim().split(":");
+            int port = Integer.parseInt(hostAndPort[1]);
+            if (isLocal(hostAndPort[0]) && port != redisPort) {
+                start(port);
+            }
+        }
     }
 
     @PreDestroy
-    public void stopRedis() {
-        if (redisServer != null) {
+    public void stopRedis() throws IOException {
+        for (RedisServer redisServer : redisServers) {
             redisServer.stop();
         }
     }
+
+    private void start(int port) throws IOException {
+        RedisServer redisServer = new RedisServer(port);
+        redisServer.start();
+        redisServers.add(redisServer);
+    }
+
+    private static boolean isLocal(String host) {
+        return "127.0.0.1".equals(host) || "localhost".equals(host);
+    }
 }
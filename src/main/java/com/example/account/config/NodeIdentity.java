@@ -0,0 +1,16 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 이 프로세스(노드)를 구분하는 아이디
+ * 여러 노드가 같은 Redis 를 쓸 때 자신이 보낸 메시지를 구분하는 데 쓴다.
+ */
+@Getter
+@Component
+public class NodeIdentity {
+    private final String nodeId = UUID.randomUUID().toString();
+}
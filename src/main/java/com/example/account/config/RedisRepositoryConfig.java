@@ -1,12 +1,21 @@
 package com.example.account.config;
 
+import com.example.account.lock.LockNodeRing;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Configuration
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
@@ -15,10 +24,83 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    /**
+     * lock lease 의 만료 시간 (LockLeaseManager 는 leaseTime 없이 잡아 watchdog 으로 연장한다)
+     */
+    @Value("${lock.lease.duration-ms}")
+    private long leaseDurationMs;
+
+    @Value("${redisson.connection-pool-size}")
+    private int connectionPoolSize;
+
+    @Value("${redisson.connection-minimum-idle-size}")
+    private int connectionMinimumIdleSize;
+
+    @Value("${redisson.netty-threads}")
+    private int nettyThreads;
+
+    @Value("${redisson.threads}")
+    private int threads;
+
+    @Value("${redisson.timeout-ms}")
+    private int timeoutMs;
+
+    @Value("${redisson.connect-timeout-ms}")
+    private int connectTimeoutMs;
+
+    @Value("${redisson.retry-attempts}")
+    private int retryAttempts;
+
+    @Value("${redisson.retry-interval-ms}")
+    private int retryIntervalMs;
+
     @Bean
     public RedissonClient redissonClient() {
+        return createClient(redisHost + ":" + redisPort);
+    }
+
+    /**
+     * 계좌 lock 용 노드 (lock.nodes 가 비어 있으면 기본 클라이언트 하나)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public LockNodeRing lockNodeRing(
+            RedissonClient redissonClient,
+            @Value("${lock.nodes}") String[] nodes,
+            @Value("${lock.virtual-nodes}") int virtualNodes,
+            @Value("${lock.quorum-accounts}") String[] quorumAccounts,
+            @Value("${lock.quorum-size}") int quorumSize
+    ) {
+        if (nodes.length == 0) {
+            return LockNodeRing.single(redissonClient);
+        }
+
+        Map<String, RedissonClient> clients = new LinkedHashMap<>();
+        List<RedissonClient> ownedClients = new ArrayList<>();
+        for (String node : nodes) {
+            RedissonClient client = createClient(node.trim());
+            clients.put(node.trim(), client);
+            ownedClients.add(client);
+        }
+        return new LockNodeRing(clients, ownedClients, virtualNodes, Arrays.stream(quorumAccounts)
+                .map(String::trim)
+                .collect(Collectors.toSet()), quorumSize);
+    }
+
+    private RedissonClient createClient(String address) {
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        config.useSingleServer()
+                .setAddress("redis://" + address)
+                .setConnectionPoolSize(connectionPoolSize)
+                .setConnectionMinimumIdleSize(connectionMinimumIdleSize)
+                .setTimeout(timeoutMs)
+                .setConnectTimeout(connectTimeoutMs)
+                .setRetryAttempts(retryAttempts)
+                .setRetryInterval(retryIntervalMs);
+        config.setNettyThreads(nettyThreads);
+        config.setThreads(threads);
+        // 모든 객체가 codec 을 직접 지정하고, lock 은 문자열만 쓰므로 기본 codec(Marshalling) 대신 문자열 codec
+        config.setCodec(StringCodec.INSTANCE);
+        config.setLockWatchdogTimeout(leaseDurationMs);
 
         return Redisson.create(config);
     }
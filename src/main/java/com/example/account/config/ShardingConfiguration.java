@@ -0,0 +1,78 @@
+package com.example.account.config;
+
+import com.example.account.sharding.ShardLayoutVerifier;
+import com.example.account.sharding.ShardRouter;
+import com.example.account.sharding.ShardRoutingDataSource;
+import com.example.account.sharding.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sharding.enabled=true 이면 sharding.urls 의 DB 들을 샤드로 쓴다. (ShardRouter 참고)
+ * 첫 번째 URL 이 0번 샤드이며, Hibernate 스키마 생성과 data.sql 은 먼저 0번에 실행된 뒤
+ * ShardSchemaInitializer 가 나머지 샤드에 같은 스키마와 사용자 데이터를 만든다.
+ * 그 다음 ShardLayoutVerifier 가 샤드 수 / 순서가 데이터를 만들 때와 같은지 확인한다.
+ * (spring.datasource.replica 와 함께 쓸 수 없다)
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties properties,
+            @Value("${sharding.urls}") String[] urls
+    ) {
+        List<DataSource> shards = new ArrayList<>(urls.length);
+        for (String url : urls) {
+            shards.add(DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build());
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer() {
+        return new ShardSchemaInitializer();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchemaInitializer shardSchemaInitializer) {
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(shardSchemaInitializer));
+    }
+
+    @Bean
+    public SmartInitializingSingleton initializeShards(
+            ShardSchemaInitializer shardSchemaInitializer,
+            ShardRouter shardRouter,
+            DataSource dataSource,
+            EntityManagerFactory entityManagerFactory
+    ) {
+        return () -> {
+            shardSchemaInitializer.initialize(shardRouter, dataSource);
+            new ShardLayoutVerifier().verify(shardRouter, dataSource);
+        };
+    }
+}
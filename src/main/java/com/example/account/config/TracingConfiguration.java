@@ -0,0 +1,57 @@
+package com.example.account.config;
+
+import com.example.account.tracing.FileSpanExporter;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * tracing.enabled=true 일 때만 span 을 만들어 tracing.file 에 남긴다.
+ * 꺼져 있으면 noop tracer 를 쓰므로 비용이 거의 없다.
+ */
+@Configuration
+public class TracingConfiguration {
+    private static final String INSTRUMENTATION_NAME = "com.example.account";
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+    public SdkTracerProvider sdkTracerProvider(
+            @Value("${tracing.file}") String file,
+            @Value("${tracing.sample-ratio}") double sampleRatio
+    ) throws IOException {
+        return SdkTracerProvider.builder()
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(sampleRatio)))
+                .addSpanProcessor(BatchSpanProcessor.builder(new FileSpanExporter(Paths.get(file))).build())
+                .build();
+    }
+
+    @Bean
+    public OpenTelemetry openTelemetry(ObjectProvider<SdkTracerProvider> sdkTracerProvider) {
+        SdkTracerProvider tracerProvider = sdkTracerProvider.getIfAvailable();
+        if (tracerProvider == null) {
+            return OpenTelemetry.noop();
+        }
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+}
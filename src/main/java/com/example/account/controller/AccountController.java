@@ -1,11 +1,15 @@
 package com.example.account.controller;
 
 import com.example.account.dto.AccountInfo;
+import com.example.account.dto.BalanceStreamStats;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
 import com.example.account.service.AccountService;
+import com.example.account.service.BalanceStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -15,6 +19,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AccountController {
     private final AccountService accountService;
+    private final BalanceStreamService balanceStreamService;
 
     @PostMapping("/account")
     public CreateAccount.Response createAccount(
@@ -51,4 +56,22 @@ public class AccountController {
                         .build()
                 ).collect(Collectors.toList());
     }
+
+    /**
+     * 사용자 계좌들의 잔액 변경을 SSE 로 전달 (연결 직후 현재 잔액을 먼저 보낸다)
+     */
+    @GetMapping(value = "/account/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalances(
+            @RequestParam("user_id") Long userId
+    ) {
+        return balanceStreamService.subscribe(
+                userId,
+                () -> accountService.getAccountsByUserId(userId)
+        );
+    }
+
+    @GetMapping("/account/stream/stats")
+    public BalanceStreamStats getBalanceStreamStats() {
+        return balanceStreamService.getStats();
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.account.controller;
+
+import com.example.account.dto.HeldLock;
+import com.example.account.dto.HotAccount;
+import com.example.account.lock.LockReaper;
+import com.example.account.metrics.HotAccountProfiler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 운영 관련 컨트롤러
+ * 1. lock 경합이 많은 계좌 조회
+ * 2. 보유 중인 계좌 lock 조회 (오래된 순, 보유 노드 생존 여부)
+ */
+@RestController
+@RequiredArgsConstructor
+public class AdminController {
+    private final HotAccountProfiler hotAccountProfiler;
+    private final LockReaper lockReaper;
+
+    @GetMapping("/admin/hot-accounts")
+    public List<HotAccount> getHotAccounts(
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return hotAccountProfiler.getHotAccounts(limit);
+    }
+
+    @GetMapping("/admin/locks")
+    public List<HeldLock> getHeldLocks() {
+        return lockReaper.getHeldLocks();
+    }
+}
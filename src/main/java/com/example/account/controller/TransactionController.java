@@ -3,35 +3,45 @@ package com.example.account.controller;
 import com.example.account.aop.AccountLock;
 import com.example.account.dto.CancelBalance;
 import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.QueryTransactions;
+import com.example.account.dto.TransactionExport;
+import com.example.account.dto.TransactionHistory;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
+import com.example.account.type.ExportFormat;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 잔액 관련 컨트롤러
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
- * 3. 거래 확인
+ * 3. 거래 확인 (단건 / 여러 건)
+ * 4. 계좌별 거래 내역 조회
+ * 5. 거래 export (NDJSON / CSV)
  */
 
-@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping("/transaction/use")
     @AccountLock
     public UseBalance.Response useBalance(
             @RequestBody @Valid UseBalance.Request request
-    ) throws InterruptedException {
+    ) {
         try {
-            Thread.sleep(3000L);
             return UseBalance.Response.from(
                     transactionService.useBalance(
                             request.getUserId(),
@@ -39,8 +49,6 @@ public class TransactionController {
                             request.getAmount())
             );
         } catch (AccountException e) {
-            log.error("Failed to use balance." + e.getErrorCode());
-
             transactionService.saveFailedUseTransaction(
                     request.getAccountNumber(),
                     request.getAmount()
@@ -64,8 +72,6 @@ public class TransactionController {
                     )
             );
         } catch (AccountException e) {
-            log.error("Failed to cancel balance." + e.getErrorCode());
-
             transactionService.saveFailedCancelTransaction(
                     request.getAccountNumber(),
                     request.getAmount()
@@ -81,4 +87,46 @@ public class TransactionController {
     ) {
         return QueryTransactionResponse.from(transactionService.queryTransaction(transactionId));
     }
+
+    @PostMapping("/transaction/query")
+    public QueryTransactions.Response queryTransactions(
+            @RequestBody @Valid QueryTransactions.Request request
+    ) {
+        return transactionService.queryTransactions(request.getTransactionIds());
+    }
+
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistory.Response getTransactionHistory(
+            @PathVariable String accountNumber,
+            @Valid TransactionHistory.Request request
+    ) {
+        return transactionService.getTransactionHistory(accountNumber, request);
+    }
+
+    @GetMapping("/transaction/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Valid TransactionExport.Request request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ExportFormat format = request.getFormat();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=transactions." + format.getExtension());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                transactionExportService.export(request, gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                transactionExportService.export(request, outputStream);
+            }
+        });
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.account.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 쓰기 직후의 읽기를 primary 로 보낸다. (replica 복제 지연 동안 방금 쓴 값이 안 보이는 문제 방지)
+ * 1. 요청 안에서 쓰기 트랜잭션이 시작되면 그 요청의 이후 읽기는 모두 primary
+ * 2. 응답에 쿠키(primary-until)를 심어, 같은 클라이언트의 다음 요청도 windowMillis 동안 primary
+ * 요청 밖(스케줄러 등)에서는 아무 것도 하지 않는다.
+ */
+public class ReadYourWrites {
+    static final String COOKIE_NAME = "primary-until";
+    private static final String PINNED_ATTRIBUTE = ReadYourWrites.class.getName() + ".PINNED";
+
+    private final long windowMillis;
+
+    public ReadYourWrites(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void markWrite() {
+        ServletRequestAttributes attributes = currentRequestAttributes();
+        if (attributes == null
+                || attributes.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == Boolean.TRUE) {
+            return;
+        }
+        attributes.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE_NAME,
+                    String.valueOf(System.currentTimeMillis() + windowMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1L, windowMillis / 1000L));
+            response.addCookie(cookie);
+        }
+    }
+
+    public boolean isPinnedToPrimary() {
+        ServletRequestAttributes attributes = currentRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        Object pinned = attributes.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (pinned == null) {
+            pinned = recentlyWrote(attributes.getRequest());
+            attributes.setAttribute(PINNED_ATTRIBUTE, pinned, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Boolean) pinned;
+    }
+
+    private static Boolean recentlyWrote(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return Boolean.FALSE;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return Boolean.FALSE;
+                }
+            }
+        }
+        return Boolean.FALSE;
+    }
+
+    private static ServletRequestAttributes currentRequestAttributes() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? (ServletRequestAttributes) attributes : null;
+    }
+}
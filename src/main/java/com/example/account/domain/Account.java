@@ -8,6 +8,7 @@ import lombok.*;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
 import java.time.LocalDateTime;
 
@@ -18,7 +19,7 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 public class Account extends BaseEntity{
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
 
     private String accountNumber;
@@ -28,20 +29,27 @@ public class Account extends BaseEntity{
 
     private Long balance;
 
+    /**
+     * 잔액이 바뀔 때마다 1씩 증가 (잔액 변경 이벤트의 순서 비교, BalanceStreamService)
+     */
+    private long balanceVersion;
+
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
     public void useBalance(Long amount) {
         if (amount > balance) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            throw AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
         balance -= amount;
+        balanceVersion++;
     }
 
     public void cancleBalance(Long amount) {
         if (amount < 0) {
-            throw new AccountException(ErrorCode.INVALID_REQUEST);
+            throw AccountException.of(ErrorCode.INVALID_REQUEST);
         }
         balance += amount;
+        balanceVersion++;
     }
 }
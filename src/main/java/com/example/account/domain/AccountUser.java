@@ -1,15 +1,21 @@
 package com.example.account.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.Entity;
 
+/**
+ * 사용자 (계좌 생성 / 해지로 바뀌지 않으므로 2차 캐시에 둔다, 계좌 수는 AccountUserCounter)
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class AccountUser extends BaseEntity{
 
     private String name;
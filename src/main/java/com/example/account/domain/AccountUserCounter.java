@@ -0,0 +1,25 @@
+package com.example.account.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 사용자별 해지되지 않은 계좌 수 (계좌 생성 / 해지 시 조건부 update 로만 바꾼다)
+ * 계좌를 만들고 해지할 때마다 바뀌므로 2차 캐시에 두는 AccountUser 와 다른 테이블에 두고, 캐시하지 않는다.
+ * (bulk update 는 같은 테이블을 쓰는 엔티티의 캐시 region 만 비운다)
+ * AccountCountReconciler 가 실제 계좌 수와 어긋난 값을 주기적으로 바로잡는다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class AccountUserCounter {
+    @Id
+    private Long accountUserId;
+
+    private int activeAccountCount;
+}
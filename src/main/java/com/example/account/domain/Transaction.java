@@ -4,10 +4,7 @@ import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.*;
 
-import javax.persistence.Entity;
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
-import javax.persistence.ManyToOne;
+import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Getter
@@ -16,6 +13,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_account_transacted_at", columnList = "account_id, transactedAt, id"),
+        @Index(name = "idx_transaction_transaction_id", columnList = "transactionId")
+})
 public class Transaction extends BaseEntity{
 
     @Enumerated(EnumType.STRING)
@@ -24,7 +25,7 @@ public class Transaction extends BaseEntity{
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
     private Long amount;
@@ -0,0 +1,81 @@
+package com.example.account.domain;
+
+import com.example.account.tracing.TraceContexts;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 거래 이벤트 아웃박스
+ * 거래(Transaction)와 같은 DB 트랜잭션에서 저장되고,
+ * 릴레이가 Redis Stream 으로 발행한 뒤 publishedAt 을 기록한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "idx_transaction_outbox_published_at", columnList = "publishedAt, id"))
+public class TransactionOutbox extends BaseEntity {
+
+    private String transactionId;
+
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+
+    private Long amount;
+
+    private Long balanceSnapshot;
+
+    private LocalDateTime transactedAt;
+
+    private LocalDateTime publishedAt;
+
+    /**
+     * 거래를 만든 요청의 W3C traceparent (tracing 이 꺼져 있으면 null)
+     */
+    private String traceparent;
+
+    public static TransactionOutbox from(Transaction transaction) {
+        return TransactionOutbox.builder()
+                .transactionId(transaction.getTransactionId())
+                .accountNumber(transaction.getAccount().getAccountNumber())
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactedAt(transaction.getTransactedAt())
+                .traceparent(TraceContexts.currentTraceparent())
+                .build();
+    }
+
+    /**
+     * outboxId 는 멱등성 키다. (다시 발행된 항목은 같은 outboxId 로 들어온다)
+     */
+    public Map<String, String> toStreamEntry() {
+        Map<String, String> entry = new LinkedHashMap<>();
+        entry.put("outboxId", String.valueOf(getId()));
+        entry.put("transactionId", transactionId);
+        entry.put("accountNumber", accountNumber);
+        entry.put("transactionType", transactionType.name());
+        entry.put("transactionResult", transactionResultType.name());
+        entry.put("amount", String.valueOf(amount));
+        entry.put("balanceSnapshot", String.valueOf(balanceSnapshot));
+        entry.put("transactedAt", String.valueOf(transactedAt));
+        if (traceparent != null) {
+            entry.put(TraceContexts.TRACEPARENT, traceparent);
+        }
+        return entry;
+    }
+}
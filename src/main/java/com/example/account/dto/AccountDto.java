@@ -14,6 +14,7 @@ public class AccountDto {
     private Long userId;
     private String accountNumber;
     private Long balance;
+    private long balanceVersion;
 
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
@@ -23,6 +24,7 @@ public class AccountDto {
                 .userId(account.getAccountUser().getId())
                 .accountNumber(account.getAccountNumber())
                 .balance(account.getBalance())
+                .balanceVersion(account.getBalanceVersion())
                 .registeredAt(account.getRegisteredAt())
                 .unRegisteredAt(account.getUnRegisteredAt())
                 .build();
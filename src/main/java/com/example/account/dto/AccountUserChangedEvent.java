@@ -0,0 +1,19 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * AccountUser 변경 이벤트
+ * 커밋 후 다른 노드의 AccountUser 2차 캐시를 무효화하는 데 쓴다. (userId 가 null 이면 전체)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountUserChangedEvent {
+    private Long userId;
+
+    public static AccountUserChangedEvent all() {
+        return new AccountUserChangedEvent(null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import lombok.*;
+
+/**
+ * 잔액 변경 이벤트
+ * 커밋 후 Redis pub/sub 으로 모든 노드에 전파되어 SSE 구독자에게 전달된다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceChangedEvent {
+    private Long userId;
+    private String accountNumber;
+    private Long balance;
+    // Account#balanceVersion, 늦게 도착한 이전 변경을 거른다.
+    private long balanceVersion;
+
+    private long publishedAt;
+
+    private String traceparent;
+
+    public static BalanceChangedEvent fromEntity(Account account) {
+        return BalanceChangedEvent.builder()
+                .userId(account.getAccountUser().getId())
+                .accountNumber(account.getAccountNumber())
+                .balance(account.getBalance())
+                .balanceVersion(account.getBalanceVersion())
+                .build();
+    }
+
+    public AccountInfo toAccountInfo() {
+        return AccountInfo.builder()
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceStreamStats {
+    private int connections;
+    private long deliveredEvents;
+    private long droppedEvents;
+    private double averageFanOutLatencyMillis;
+    private long maxFanOutLatencyMillis;
+}
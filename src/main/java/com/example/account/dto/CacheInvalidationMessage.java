@@ -0,0 +1,17 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * 노드 간 캐시 무효화 메시지 (Redis pub/sub)
+ * 보낸 노드는 자신이 보낸 메시지를 무시한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheInvalidationMessage {
+    private String nodeId;
+    private Long userId;
+}
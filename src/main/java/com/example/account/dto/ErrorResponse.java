@@ -3,12 +3,27 @@ package com.example.account.dto;
 import com.example.account.type.ErrorCode;
 import lombok.*;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 실패 응답 (ErrorCode 별로 하나씩 미리 만들어 두고 재사용한다)
+ */
 @Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class ErrorResponse {
-    private ErrorCode errorCode;
-    private String errorMessage;
+    private static final Map<ErrorCode, ErrorResponse> INSTANCES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            INSTANCES.put(errorCode, new ErrorResponse(errorCode, errorCode.getDescription()));
+        }
+    }
+
+    private final ErrorCode errorCode;
+    private final String errorMessage;
+
+    public static ErrorResponse of(ErrorCode errorCode) {
+        return INSTANCES.get(errorCode);
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * 보유 중인 계좌 lock (/admin/locks)
+ * nodeAlive 가 false 이면 reaper 가 곧 해제한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HeldLock {
+    private String accountNumber;
+    private String nodeId;
+    private String threadName;
+    private long acquiredAt;
+    private long ageMillis;
+    private long leaseMillis;
+    private boolean nodeAlive;
+}
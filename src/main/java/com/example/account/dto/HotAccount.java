@@ -0,0 +1,22 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * lock 경합이 많은 계좌
+ * attempts 는 실제보다 최대 attemptsError 만큼 크게 잡힐 수 있다. (space-saving 추정치)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotAccount {
+    private String accountNumber;
+    private long attempts;
+    private long attemptsError;
+    private long failures;
+    private double waitP50Millis;
+    private double waitP99Millis;
+    private double waitMaxMillis;
+}
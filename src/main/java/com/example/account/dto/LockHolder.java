@@ -0,0 +1,21 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * lock registry 에 기록된 계좌 lock 보유자 (Redis hash 값, JSON)
+ * owner 는 lock hash 의 필드(클라이언트 아이디:스레드 아이디)이고, leaseMs 가 -1 이면 노드 lease 다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LockHolder {
+    private String accountNumber;
+    private String nodeId;
+    private String owner;
+    private String threadName;
+    private long acquiredAt;
+    private long leaseMs;
+}
@@ -0,0 +1,17 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * 다른 노드가 들고 있는 계좌 lock lease 를 놓아 달라는 요청 (Redis pub/sub)
+ * 보낸 노드는 자신이 보낸 메시지를 무시한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LockYieldRequest {
+    private String nodeId;
+    private String accountNumber;
+}
@@ -0,0 +1,42 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class QueryTransactions {
+    /**
+     * {
+     * "transactionIds":["c2033bb6d82a4250aecf8e27c49b63f6", "..."]
+     * }
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Request {
+        @NotEmpty
+        @Size(max = 1000)
+        private List<@NotBlank String> transactionIds;
+    }
+
+    /**
+     * {
+     * "transactions":[{"accountNumber":"1000000000","transactionId":"c2033bb6d82a4250aecf8e27c49b63f6", ...}],
+     * "notFoundTransactionIds":["..."]
+     * }
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<QueryTransactionResponse> transactions;
+        private List<String> notFoundTransactionIds;
+    }
+}
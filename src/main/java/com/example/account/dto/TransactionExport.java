@@ -0,0 +1,44 @@
+package com.example.account.dto;
+
+import com.example.account.type.ExportFormat;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public class TransactionExport {
+    /**
+     * GET /transaction/export?accountNumber=1000000000&format=CSV
+     * GET /transaction/export?userId=1&from=2022-06-01T00:00:00&to=2022-07-01T00:00:00
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Request {
+        private String accountNumber;
+
+        private Long userId;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime from;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime to;
+
+        @NotNull
+        @Builder.Default
+        private ExportFormat format = ExportFormat.NDJSON;
+
+        /**
+         * 계좌, 사용자, 기간 중 하나는 있어야 한다. (전체 테이블 export 방지)
+         */
+        @AssertTrue
+        public boolean isFilterPresent() {
+            return accountNumber != null || userId != null || from != null || to != null;
+        }
+    }
+}
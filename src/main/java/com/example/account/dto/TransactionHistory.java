@@ -0,0 +1,57 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TransactionHistory {
+    /**
+     * GET /account/1000000000/transactions?size=20&transactionType=USE
+     * &from=2022-06-01T00:00:00&to=2022-07-01T00:00:00&cursor=...
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Request {
+        private String cursor;
+
+        @Min(1)
+        @Max(100)
+        @Builder.Default
+        private int size = 20;
+
+        private TransactionType transactionType;
+
+        private TransactionResultType transactionResult;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime from;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime to;
+    }
+
+    /**
+     * {
+     * "transactions":[{"transactionId":"c2033bb6d82a4250aecf8e27c49b63f6", ...}],
+     * "nextCursor":"MjAyMi0wNi0wMVQyMzoyNjoxNC42NzE4NTlfMTI"
+     * }
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<TransactionSummary> transactions;
+        private String nextCursor;
+    }
+}
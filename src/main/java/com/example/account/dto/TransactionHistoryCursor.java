@@ -0,0 +1,51 @@
+package com.example.account.dto;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 거래 내역 keyset 페이지네이션 커서
+ * 마지막으로 읽은 거래의 (transactedAt, id) 를 담는다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionHistoryCursor {
+    private static final String DELIMITER = "_";
+
+    private final LocalDateTime transactedAt;
+    private final Long id;
+
+    public static TransactionHistoryCursor from(TransactionSummary transactionSummary) {
+        return new TransactionHistoryCursor(
+                transactionSummary.getTransactedAt(),
+                transactionSummary.getId()
+        );
+    }
+
+    public static TransactionHistoryCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int delimiterIndex = decoded.lastIndexOf(DELIMITER);
+            return new TransactionHistoryCursor(
+                    LocalDateTime.parse(decoded.substring(0, delimiterIndex)),
+                    Long.parseLong(decoded.substring(delimiterIndex + 1))
+            );
+        } catch (RuntimeException e) {
+            throw AccountException.of(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((transactedAt + DELIMITER + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
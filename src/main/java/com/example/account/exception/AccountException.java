@@ -1,19 +1,36 @@
 package com.example.account.exception;
 
 import com.example.account.type.ErrorCode;
-import lombok.*;
+import lombok.Getter;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 업무 실패 예외
+ * 실패 원인은 ErrorCode 로 충분하므로 stack trace 를 만들지 않는다.
+ * 상태가 없으므로 ErrorCode 별로 하나씩 미리 만들어 두고 재사용한다. (AccountException.of)
+ */
 @Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-public class AccountException extends RuntimeException{
-    private ErrorCode errorCode;
-    private String errorMessage;
+public class AccountException extends RuntimeException {
+    private static final Map<ErrorCode, AccountException> INSTANCES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            INSTANCES.put(errorCode, new AccountException(errorCode));
+        }
+    }
+
+    private final ErrorCode errorCode;
+    private final String errorMessage;
 
     public AccountException(ErrorCode errorCode) {
+        super(errorCode.getDescription(), null, false, false);
         this.errorCode = errorCode;
         this.errorMessage = errorCode.getDescription();
     }
+
+    public static AccountException of(ErrorCode errorCode) {
+        return INSTANCES.get(errorCode);
+    }
 }
@@ -0,0 +1,51 @@
+package com.example.account.exception;
+
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ErrorCode 별로 intervalMillis 에 한 번만 로그를 남기고, 그 사이의 실패는 개수만 센다.
+ * (lock 경합이 몰릴 때 같은 실패 로그가 초당 수천 줄 쌓이지 않도록)
+ * 실패 횟수 자체는 account.errors 메트릭으로 빠짐없이 남는다.
+ */
+@Slf4j
+public class ErrorLogSampler {
+    private final long intervalNanos;
+    private final Map<ErrorCode, AtomicLong> nextLogAt = new EnumMap<>(ErrorCode.class);
+    private final Map<ErrorCode, LongAdder> suppressed = new EnumMap<>(ErrorCode.class);
+
+    public ErrorLogSampler(long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        long now = System.nanoTime();
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            nextLogAt.put(errorCode, new AtomicLong(now));
+            suppressed.put(errorCode, new LongAdder());
+        }
+    }
+
+    public void log(ErrorCode errorCode) {
+        if (!tryAcquire(errorCode)) {
+            suppressed.get(errorCode).increment();
+            return;
+        }
+        long count = suppressed.get(errorCode).sumThenReset();
+        if (count == 0) {
+            log.error("{} is occurred.", errorCode);
+        } else {
+            log.error("{} is occurred. ({} more since last log)", errorCode, count);
+        }
+    }
+
+    boolean tryAcquire(ErrorCode errorCode) {
+        AtomicLong next = nextLogAt.get(errorCode);
+        long now = System.nanoTime();
+        long scheduled = next.get();
+        return now - scheduled >= 0 && next.compareAndSet(scheduled, now + intervalNanos);
+    }
+}
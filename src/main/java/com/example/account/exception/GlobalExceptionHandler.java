@@ -1,43 +1,70 @@
 package com.example.account.exception;
 
 import com.example.account.dto.ErrorResponse;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.metrics.RequestProfile;
 import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private static final long ERROR_LOG_INTERVAL_MILLIS = 1000L;
+
+    private final AccountMetrics accountMetrics;
+    private final ErrorLogSampler errorLogSampler = new ErrorLogSampler(ERROR_LOG_INTERVAL_MILLIS);
+
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e) {
-        log.error("{} is occurred.", e.getErrorCode());
+        errorLogSampler.log(e.getErrorCode());
+        accountMetrics.recordError(e.getErrorCode());
+        RequestProfile.markError(e.getErrorCode());
 
-        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+        return ErrorResponse.of(e.getErrorCode());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ErrorResponse handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
-        log.error("MethodArgumentNotValidException is occurred.", e);
+        log.debug("MethodArgumentNotValidException is occurred.", e);
+        errorLogSampler.log(ErrorCode.INVALID_REQUEST);
+        accountMetrics.recordError(ErrorCode.INVALID_REQUEST);
+        RequestProfile.markError(ErrorCode.INVALID_REQUEST);
+
+        return ErrorResponse.of(ErrorCode.INVALID_REQUEST);
+    }
+
+    @ExceptionHandler(BindException.class)
+    public ErrorResponse handleBindException(BindException e) {
+        log.debug("BindException is occurred.", e);
+        errorLogSampler.log(ErrorCode.INVALID_REQUEST);
+        accountMetrics.recordError(ErrorCode.INVALID_REQUEST);
+        RequestProfile.markError(ErrorCode.INVALID_REQUEST);
 
-        return new ErrorResponse(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.getDescription());
+        return ErrorResponse.of(ErrorCode.INVALID_REQUEST);
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
         log.error("DataIntegrityViolationException is occurred.", e);
+        accountMetrics.recordError(ErrorCode.INVALID_REQUEST);
+        RequestProfile.markError(ErrorCode.INVALID_REQUEST);
 
-        return new ErrorResponse(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.getDescription());
+        return ErrorResponse.of(ErrorCode.INVALID_REQUEST);
     }
 
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e) {
         log.error("Exception is occurred.", e);
+        accountMetrics.recordError(ErrorCode.INTERNAL_SERVER_ERROR);
+        RequestProfile.markError(ErrorCode.INTERNAL_SERVER_ERROR);
 
-        return new ErrorResponse(ErrorCode.INTERNAL_SERVER_ERROR,
-                ErrorCode.INTERNAL_SERVER_ERROR.getDescription()
-        );
+        return ErrorResponse.of(ErrorCode.INTERNAL_SERVER_ERROR);
     }
 }
@@ -0,0 +1,289 @@
+package com.example.account.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.RedissonRedLock;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 계좌 lock 을 여러 Redis 노드에 나누어 거는 consistent hash ring
+ * 1. 노드마다 virtualNodes 개의 점을 ring 에 올리고, lock key 의 hash 다음에 오는 점의 노드를 사용한다.
+ *    (점은 노드 주소로 만들기 때문에 노드를 더하거나 빼도 약 1/N 의 key 만 옮겨간다)
+ * 2. quorumAccounts 에 있는 계좌는 ring 에서 이어지는 서로 다른 노드 quorumSize 개에
+ *    RedLock 을 건다. (과반이 잡혀야 성공, 노드 하나가 죽어도 lock 을 잃지 않는다)
+ */
+@Slf4j
+public class LockNodeRing {
+    /**
+     * RedissonLock#unlockInnerAsync 와 같다. (재진입 횟수를 줄이고, 남으면 만료 시간을 다시 정하고, 0 이 되면 지우면서 대기자에게 알린다)
+     * KEYS[1] lock key, KEYS[2] 해제 채널, ARGV[1] 해제 메시지, ARGV[2] lease(ms), ARGV[3] lock 소유자 (클라이언트 아이디:스레드 아이디)
+     * 스크립트 / 채널 이름 / 소유자 형식은 Redisson 3.17.1 의 내부 구현을 글자 그대로 옮긴 것이다.
+     * Redisson 을 올리면 LockNodeRingTest 가 실제 RedissonLock 과 같은지 (스크립트는 SHA1 로) 확인한다.
+     */
+    static final String UNLOCK_SCRIPT =
+            "if (redis.call('hexists', KEYS[1], ARGV[3]) == 0) then " +
+                    "return nil;" +
+                    "end; " +
+                    "local counter = redis.call('hincrby', KEYS[1], ARGV[3], -1); " +
+                    "if (counter > 0) then " +
+                    "redis.call('pexpire', KEYS[1], ARGV[2]); " +
+                    "return 0; " +
+                    "else " +
+                    "redis.call('del', KEYS[1]); " +
+                    "redis.call('publish', KEYS[2], ARGV[1]); " +
+                    "return 1; " +
+                    "end; " +
+                    "return nil;";
+    static final String FORCE_UNLOCK_SCRIPT =
+            "if (redis.call('hexists', KEYS[1], ARGV[2]) == 0) then return 0; end; "
+                    + "redis.call('del', KEYS[1]); "
+                    + "redis.call('publish', KEYS[2], ARGV[1]); "
+                    + "return 1;";
+    /**
+     * owner 가 들고 있을 때만 만료 시간을 다시 정한다. (watchdog 의 연장과 같은 동작)
+     * KEYS[1] lock key, ARGV[1] 만료 시간(ms), ARGV[2] lock 소유자
+     */
+    static final String RENEW_SCRIPT =
+            "if (redis.call('hexists', KEYS[1], ARGV[2]) == 0) then return 0; end; "
+                    + "redis.call('pexpire', KEYS[1], ARGV[1]); "
+                    + "return 1;";
+    private static final String LOCK_CHANNEL_PREFIX = "redisson_lock__channel:";
+    private static final String UNLOCK_MESSAGE = "0";
+
+    private final List<String> addresses;
+    private final List<RedissonClient> clients;
+    private final List<RedissonClient> ownedClients;
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+    private final Set<String> quorumAccounts;
+    private final int quorumSize;
+
+    /**
+     * @param nodes        노드 주소 -> 클라이언트 (순서 유지)
+     * @param ownedClients shutdown 에서 닫을 클라이언트 (애플리케이션의 기본 클라이언트는 제외)
+     */
+    public LockNodeRing(
+            Map<String, RedissonClient> nodes,
+            List<RedissonClient> ownedClients,
+            int virtualNodes,
+            Set<String> quorumAccounts,
+            int quorumSize
+    ) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("lock ring needs at least one node");
+        }
+        this.addresses = List.copyOf(nodes.keySet());
+        this.clients = List.copyOf(nodes.values());
+        this.ownedClients = List.copyOf(ownedClients);
+        this.quorumAccounts = Set.copyOf(quorumAccounts);
+        this.quorumSize = Math.min(quorumSize, clients.size());
+
+        for (int node = 0; node < addresses.size(); node++) {
+            for (int virtualNode = 0; virtualNode < virtualNodes; virtualNode++) {
+                ring.put(hash(addresses.get(node) + "#" + virtualNode), node);
+            }
+        }
+    }
+
+    public static LockNodeRing single(RedissonClient redissonClient) {
+        return new LockNodeRing(Map.of("default", redissonClient), List.of(), 1, Set.of(), 1);
+    }
+
+    public RLock getLock(String accountNumber, String lockKey) {
+        if (isQuorum(accountNumber)) {
+            return new RedissonRedLock(quorumLocks(lockKey));
+        }
+        return clients.get(nodeOf(lockKey)).getLock(lockKey);
+    }
+
+    /**
+     * RedLock 은 과반만 잡혀도 성공하므로, 잡지 못한 노드의 해제 실패는 무시한다.
+     */
+    public void unlock(String accountNumber, String lockKey) {
+        if (!isQuorum(accountNumber)) {
+            clients.get(nodeOf(lockKey)).getLock(lockKey).unlock();
+            return;
+        }
+        for (RLock lock : quorumLocks(lockKey)) {
+            try {
+                lock.unlock();
+            } catch (IllegalMonitorStateException e) {
+                log.debug("Quorum lock {} was not held on one node", lockKey);
+            }
+        }
+    }
+
+    /**
+     * 현재 스레드의 lock 해제와 lock 을 잡은 동안 모아 둔 publish 를 한 번의 왕복으로 보낸다.
+     * 1. unlock 은 RedissonLock 과 같은 Lua 스크립트(UNLOCK_SCRIPT)로, publish 와 같은 파이프라인에 넣는다.
+     * 2. publisher 가 lock 노드와 다른 클라이언트이면 publish 는 publisher 로 따로 보낸다.
+     * 3. RedLock 계좌는 노드별로 unlock 한 뒤 publish 를 보낸다.
+     * lease(leaseTime > 0) 를 주고 잡은 lock 만 쓴다. (watchdog 연장을 취소하지 않는다, LockService 가 확인)
+     */
+    public void unlock(String accountNumber, String lockKey,
+                       RedissonClient publisher, List<PendingPublishes.Publish> publishes) {
+        unlock(accountNumber, lockKey, -1L, publisher, publishes, batch -> {
+        });
+    }
+
+    /**
+     * @param leaseMs   재진입한 lock 이 남을 때 다시 정할 만료 시간 (잡을 때의 leaseTime,
+     *                  0 이하이면 새로 만든 RLock 의 unlock 과 같이 watchdog 시간)
+     * @param sameBatch unlock 스크립트 뒤에 같은 batch 로 보낼 명령 (lock 노드의 key 만, RedLock 계좌는 호출하지 않는다)
+     */
+    public void unlock(String accountNumber, String lockKey, long leaseMs,
+                       RedissonClient publisher, List<PendingPublishes.Publish> publishes,
+                       Consumer<RBatch> sameBatch) {
+        if (isQuorum(accountNumber)) {
+            unlock(accountNumber, lockKey);
+            PendingPublishes.flush(publisher, publishes);
+            return;
+        }
+
+        RedissonClient client = clients.get(nodeOf(lockKey));
+        long expireMs = leaseMs > 0 ? leaseMs : client.getConfig().getLockWatchdogTimeout();
+        RBatch batch = client.createBatch();
+        RFuture<Long> released = batch.getScript(StringCodec.INSTANCE).evalAsync(
+                RScript.Mode.READ_WRITE, UNLOCK_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(lockKey, channelName(lockKey)),
+                UNLOCK_MESSAGE, String.valueOf(expireMs), ownerOf(lockKey, Thread.currentThread().getId()));
+        sameBatch.accept(batch);
+        if (client == publisher) {
+            PendingPublishes.addTo(batch, publishes);
+        }
+        batch.execute();
+        if (client != publisher) {
+            PendingPublishes.flush(publisher, publishes);
+        }
+
+        if (released.getNow() == null) {
+            throw new IllegalMonitorStateException("attempt to unlock lock, not locked by current thread : " + lockKey);
+        }
+    }
+
+    /**
+     * lock key 가 걸리는 노드의 클라이언트 (RedLock 계좌는 첫 번째 노드)
+     */
+    public RedissonClient clientOf(String lockKey) {
+        return clients.get(nodeOf(lockKey));
+    }
+
+    /**
+     * lock hash 에 기록되는 소유자 (RedissonLock#getLockName 과 같다)
+     */
+    public String ownerOf(String lockKey, long threadId) {
+        return clients.get(nodeOf(lockKey)).getId() + ":" + threadId;
+    }
+
+    public boolean isHeldBy(String lockKey, String owner) {
+        return clients.get(nodeOf(lockKey)).getMap(lockKey, StringCodec.INSTANCE).containsKey(owner);
+    }
+
+    /**
+     * owner 가 아직 들고 있을 때만 lock 의 만료 시간을 지금부터 leaseMs 뒤로 늘린다.
+     * (true 이면 Redis 에서 이 호출을 보내기 전 시각 + leaseMs 까지는 만료되지 않는다)
+     */
+    public boolean renew(String lockKey, String owner, long leaseMs) {
+        Long renewed = clients.get(nodeOf(lockKey)).getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, RENEW_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(lockKey), String.valueOf(leaseMs), owner);
+        return renewed != null && renewed == 1L;
+    }
+
+    /**
+     * owner 가 아직 들고 있을 때만 lock 을 지우고 대기자에게 알린다. (다른 소유자의 lock 은 건드리지 않는다)
+     */
+    public boolean forceUnlock(String lockKey, String owner) {
+        Long released = clients.get(nodeOf(lockKey)).getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, FORCE_UNLOCK_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(lockKey, channelName(lockKey)), UNLOCK_MESSAGE, owner);
+        return released != null && released == 1L;
+    }
+
+    /**
+     * RedissonLock#getChannelName 과 같다.
+     */
+    static String channelName(String lockKey) {
+        return lockKey.contains("{") ? LOCK_CHANNEL_PREFIX + lockKey : LOCK_CHANNEL_PREFIX + "{" + lockKey + "}";
+    }
+
+    public boolean isQuorum(String accountNumber) {
+        return quorumSize > 1 && quorumAccounts.contains(accountNumber);
+    }
+
+    private RLock[] quorumLocks(String lockKey) {
+        return nodesOf(lockKey, quorumSize).stream()
+                .map(node -> clients.get(node).getLock(lockKey))
+                .toArray(RLock[]::new);
+    }
+
+    public int nodeOf(String lockKey) {
+        return nodesOf(lockKey, 1).get(0);
+    }
+
+    /**
+     * key 의 hash 부터 ring 을 시계 방향으로 돌며 만나는 서로 다른 노드 count 개
+     */
+    List<Integer> nodesOf(String lockKey, int count) {
+        if (clients.size() == 1) {
+            return List.of(0);
+        }
+        Set<Integer> nodes = new LinkedHashSet<>();
+        long hash = hash(lockKey);
+        for (Integer node : ring.tailMap(hash, true).values()) {
+            if (nodes.size() == count) {
+                break;
+            }
+            nodes.add(node);
+        }
+        for (Integer node : ring.headMap(hash, false).values()) {
+            if (nodes.size() == count) {
+                break;
+            }
+            nodes.add(node);
+        }
+        return new ArrayList<>(nodes);
+    }
+
+    public List<String> getAddresses() {
+        return Collections.unmodifiableList(addresses);
+    }
+
+    public List<RedissonClient> getClients() {
+        return clients;
+    }
+
+    public void shutdown() {
+        ownedClients.forEach(RedissonClient::shutdown);
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest(value.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
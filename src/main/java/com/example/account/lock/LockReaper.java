@@ -0,0 +1,121 @@
+package com.example.account.lock;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.dto.HeldLock;
+import com.example.account.dto.LockHolder;
+import com.example.account.metrics.AccountMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 죽은 노드의 계좌 lock 해제
+ * 1. registry 의 보유 노드 중 heartbeat 가 끊긴 노드의 lock 을, 아직 그 owner 가 들고 있을 때만 지운다.
+ *    (lease 가 끝날 때까지 기다리지 않고 heartbeat-ttl-ms 안에 풀린다)
+ * 2. 살아 있는 노드의 기록이라도 heartbeat-ttl-ms 보다 오래됐고 lock 을 더 이상 들고 있지 않으면
+ *    유실된 해제 기록으로 보고 지운다.
+ * registry 를 모두 읽어야 하므로 reaper 역할(reaper-key)을 가진 노드 하나만 실행한다.
+ * 역할은 heartbeat-ttl-ms 동안 유지되고 실행할 때마다 연장한다. (노드가 죽으면 다른 노드가 이어받는다)
+ * 역할이 겹쳐도 안전하다. (해제는 owner 를 확인하는 스크립트 하나로 처리)
+ * GC 등으로 heartbeat-ttl-ms 보다 오래 멈춘 노드는 lock 을 잃을 수 있다. 그 노드는 스스로 차단돼
+ * 진행 중인 잔액 변경을 commit 하지 않는다. (NodeHeartbeat, LockService)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LockReaper {
+    /**
+     * 비어 있거나 이미 이 노드의 역할이면 ttl 을 다시 정하고 1, 다른 노드의 역할이면 0
+     * KEYS[1] reaper key, ARGV[1] 노드 아이디, ARGV[2] ttl(ms)
+     */
+    private static final String CLAIM_SCRIPT =
+            "local reaper = redis.call('get', KEYS[1]); "
+                    + "if (reaper == false or reaper == ARGV[1]) then "
+                    + "redis.call('set', KEYS[1], ARGV[1], 'px', ARGV[2]); return 1; end; "
+                    + "return 0;";
+
+    private final RedissonClient redissonClient;
+    private final NodeIdentity nodeIdentity;
+    private final LockRegistry lockRegistry;
+    private final NodeHeartbeat nodeHeartbeat;
+    private final LockNodeRing lockNodeRing;
+    private final AccountMetrics accountMetrics;
+
+    @Value("${lock.registry.heartbeat-ttl-ms}")
+    private long staleAfterMs;
+
+    @Value("${lock.registry.reaper-key}")
+    private String reaperKey;
+
+    @Scheduled(fixedDelayString = "${lock.registry.reap-interval-ms}")
+    public void reap() {
+        if (!claimReaper()) {
+            return;
+        }
+        Map<String, LockHolder> holders = lockRegistry.getHolders();
+        if (holders.isEmpty()) {
+            return;
+        }
+        Set<String> alive = nodeHeartbeat.aliveNodes(holders.values().stream()
+                .map(LockHolder::getNodeId)
+                .collect(Collectors.toSet()));
+
+        long now = System.currentTimeMillis();
+        holders.forEach((lockKey, holder) -> {
+            if (!alive.contains(holder.getNodeId())) {
+                if (lockNodeRing.forceUnlock(lockKey, holder.getOwner())) {
+                    log.warn("Reaped lock {} held by dead node {} for {}ms",
+                            lockKey, holder.getNodeId(), now - holder.getAcquiredAt());
+                    accountMetrics.recordLockReaped("dead-node");
+                }
+                lockRegistry.unregister(lockKey, holder.getOwner());
+            } else if (now - holder.getAcquiredAt() > staleAfterMs
+                    && !lockNodeRing.isHeldBy(lockKey, holder.getOwner())) {
+                lockRegistry.unregister(lockKey, holder.getOwner());
+                accountMetrics.recordLockReaped("stale-entry");
+            }
+        });
+    }
+
+    private boolean claimReaper() {
+        Long claimed = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, CLAIM_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(reaperKey), nodeIdentity.getNodeId(), String.valueOf(staleAfterMs));
+        return claimed != null && claimed == 1L;
+    }
+
+    /**
+     * 보유 중인 lock (오래된 순)
+     */
+    public List<HeldLock> getHeldLocks() {
+        Map<String, LockHolder> holders = lockRegistry.getHolders();
+        Set<String> alive = nodeHeartbeat.aliveNodes(holders.values().stream()
+                .map(LockHolder::getNodeId)
+                .collect(Collectors.toSet()));
+
+        long now = System.currentTimeMillis();
+        return holders.values().stream()
+                .map(holder -> HeldLock.builder()
+                        .accountNumber(holder.getAccountNumber())
+                        .nodeId(holder.getNodeId())
+                        .threadName(holder.getThreadName())
+                        .acquiredAt(holder.getAcquiredAt())
+                        .ageMillis(now - holder.getAcquiredAt())
+                        .leaseMillis(holder.getLeaseMs())
+                        .nodeAlive(alive.contains(holder.getNodeId()))
+                        .build())
+                .sorted(Comparator.comparingLong(HeldLock::getAgeMillis).reversed())
+                .collect(Collectors.toList());
+    }
+}
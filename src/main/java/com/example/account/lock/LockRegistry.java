@@ -0,0 +1,149 @@
+package com.example.account.lock;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.dto.LockHolder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 보유 중인 계좌 lock 의 기록 (Redis hash, lock key -> LockHolder JSON)
+ * 1. 기록은 lock 과 같은 Redis 노드(LockNodeRing#clientOf)에 둔다.
+ * 2. lock 을 잡으면 기록한다. 요청 경로에 왕복을 더하지 않도록 결과를 기다리지 않는다.
+ * 3. 지울 때는 기록의 owner 가 같을 때만 지운다. (그 사이 다른 노드가 잡은 기록을 지우지 않도록)
+ *    요청 lock 은 unlock 과 같은 RBatch 에 넣어 한 번의 왕복으로 지운다.
+ * 4. 아직 응답이 오지 않은 기록이 있으면 그 응답을 받은 뒤에 지운다.
+ *    (다른 연결로 보낸 두 명령은 순서가 바뀔 수 있다, 지우기가 먼저 실행되면 기록이 남는다)
+ * 유실된 기록은 LockReaper 가 정리한다.
+ */
+@Slf4j
+@Component
+public class LockRegistry {
+    /**
+     * KEYS[1] registry, ARGV[1] lock key, ARGV[2] owner
+     */
+    private static final String UNREGISTER_SCRIPT =
+            "local holder = redis.call('hget', KEYS[1], ARGV[1]); "
+                    + "if (holder and cjson.decode(holder).owner == ARGV[2]) then "
+                    + "return redis.call('hdel', KEYS[1], ARGV[1]); end; "
+                    + "return 0;";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final LockNodeRing lockNodeRing;
+    private final NodeIdentity nodeIdentity;
+    private final String registryKey;
+    // 응답을 기다리는 기록 (lock key + owner -> 기록 명령)
+    private final ConcurrentMap<String, RFuture<Boolean>> pendingRegisters = new ConcurrentHashMap<>();
+
+    public LockRegistry(
+            LockNodeRing lockNodeRing,
+            NodeIdentity nodeIdentity,
+            @Value("${lock.registry.key}") String registryKey
+    ) {
+        this.lockNodeRing = lockNodeRing;
+        this.nodeIdentity = nodeIdentity;
+        this.registryKey = registryKey;
+    }
+
+    public void register(String accountNumber, String lockKey, long threadId, String threadName, long leaseMs) {
+        String owner = lockNodeRing.ownerOf(lockKey, threadId);
+        LockHolder holder = LockHolder.builder()
+                .accountNumber(accountNumber)
+                .nodeId(nodeIdentity.getNodeId())
+                .owner(owner)
+                .threadName(threadName)
+                .acquiredAt(System.currentTimeMillis())
+                .leaseMs(leaseMs)
+                .build();
+        String json;
+        try {
+            json = OBJECT_MAPPER.writeValueAsString(holder);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to register lock {}", lockKey, e);
+            return;
+        }
+
+        String pendingKey = pendingKey(lockKey, owner);
+        RFuture<Boolean> registered = lockNodeRing.clientOf(lockKey)
+                .<String, String>getMap(registryKey, StringCodec.INSTANCE)
+                .fastPutAsync(lockKey, json);
+        pendingRegisters.put(pendingKey, registered);
+        registered.whenComplete((result, e) -> {
+            pendingRegisters.remove(pendingKey, registered);
+            if (e != null) {
+                log.warn("Failed to register lock {}", lockKey, e);
+            }
+        });
+    }
+
+    /**
+     * unlock 과 같은 batch 에 기록 지우기를 넣는다. (batch 는 lock 노드의 클라이언트로 만든 것이어야 한다)
+     */
+    public void unregister(RBatch batch, String lockKey, long threadId) {
+        String owner = lockNodeRing.ownerOf(lockKey, threadId);
+        awaitRegistered(lockKey, owner);
+        batch.getScript(StringCodec.INSTANCE).evalAsync(
+                RScript.Mode.READ_WRITE, UNREGISTER_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(registryKey), lockKey, owner);
+    }
+
+    public void unregister(String lockKey, long threadId) {
+        unregister(lockKey, lockNodeRing.ownerOf(lockKey, threadId));
+    }
+
+    /**
+     * 결과를 기다린다. (같은 owner 가 다시 잡은 뒤의 기록을 늦게 도착한 지우기가 지우지 않도록)
+     */
+    public void unregister(String lockKey, String owner) {
+        awaitRegistered(lockKey, owner);
+        try {
+            lockNodeRing.clientOf(lockKey).getScript(StringCodec.INSTANCE).<Long>eval(
+                    RScript.Mode.READ_WRITE, UNREGISTER_SCRIPT, RScript.ReturnType.INTEGER,
+                    List.of(registryKey), lockKey, owner);
+        } catch (Exception e) {
+            log.warn("Failed to unregister lock {}", lockKey, e);
+        }
+    }
+
+    /**
+     * lock key -> 보유자 (lock 노드마다 한 번씩 읽는다)
+     */
+    public Map<String, LockHolder> getHolders() {
+        Map<String, LockHolder> result = new LinkedHashMap<>();
+        for (RedissonClient client : lockNodeRing.getClients()) {
+            client.<String, String>getMap(registryKey, StringCodec.INSTANCE).readAllMap().forEach((lockKey, json) -> {
+                try {
+                    result.put(lockKey, OBJECT_MAPPER.readValue(json, LockHolder.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Broken lock registry entry {}", lockKey, e);
+                }
+            });
+        }
+        return result;
+    }
+
+    private void awaitRegistered(String lockKey, String owner) {
+        RFuture<Boolean> registered = pendingRegisters.get(pendingKey(lockKey, owner));
+        if (registered != null) {
+            // 실패는 register 에서 기록했다.
+            registered.toCompletableFuture().handle((result, e) -> result).join();
+        }
+    }
+
+    private static String pendingKey(String lockKey, String owner) {
+        return lockKey + "|" + owner;
+    }
+}
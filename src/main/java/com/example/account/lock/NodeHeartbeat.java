@@ -0,0 +1,141 @@
+package com.example.account.lock;
+
+import com.example.account.config.NodeIdentity;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 노드 heartbeat (heartbeat-ttl-ms 동안만 살아 있는 Redis key)
+ * key 가 없는 노드는 죽은 것으로 보고, 그 노드의 lock 을 LockReaper 가 해제한다.
+ * 1. 다른 스케줄 작업에 밀리지 않도록 전용 스레드에서 갱신한다.
+ * 2. 마지막 갱신 후 heartbeat-ttl-ms - heartbeat-interval-ms 가 지나면 스스로 차단(fenced)된 것으로 본다.
+ *    차단된 동안에는 새 lock 을 주지 않고, 차단 전후로 잡은 lock 의 작업은 commit 하지 않는다. (LockService)
+ * 정상 종료할 때는 key 를 바로 지운다.
+ */
+@Slf4j
+@Component
+public class NodeHeartbeat {
+    private final RedissonClient redissonClient;
+    private final NodeIdentity nodeIdentity;
+    private final String keyPrefix;
+    private final long intervalMs;
+    private final long ttlMs;
+    private final long fenceAfterNanos;
+
+    private volatile long renewedAt = System.nanoTime();
+    // 차단됐다가 다시 갱신할 때마다 증가한다.
+    private volatile long epoch;
+
+    private ScheduledExecutorService executor;
+
+    public NodeHeartbeat(
+            RedissonClient redissonClient,
+            NodeIdentity nodeIdentity,
+            @Value("${lock.registry.heartbeat-prefix}") String keyPrefix,
+            @Value("${lock.registry.heartbeat-interval-ms}") long intervalMs,
+            @Value("${lock.registry.heartbeat-ttl-ms}") long ttlMs
+    ) {
+        if (ttlMs <= intervalMs * 2) {
+            throw new IllegalArgumentException("heartbeat-ttl-ms must be longer than two heartbeat intervals");
+        }
+        this.redissonClient = redissonClient;
+        this.nodeIdentity = nodeIdentity;
+        this.keyPrefix = keyPrefix;
+        this.intervalMs = intervalMs;
+        this.ttlMs = ttlMs;
+        this.fenceAfterNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs - intervalMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        beat();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "node-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::renew, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        try {
+            redissonClient.getBucket(keyOf(nodeIdentity.getNodeId()), StringCodec.INSTANCE).delete();
+        } catch (Exception e) {
+            // 지우지 못하면 heartbeat-ttl-ms 뒤에 만료된다.
+            log.warn("Failed to remove node heartbeat", e);
+        }
+    }
+
+    public void beat() {
+        // 보내기 전 시각을 기준으로 한다. (Redis 의 만료보다 먼저 차단된다)
+        long startedAt = System.nanoTime();
+        redissonClient.getBucket(keyOf(nodeIdentity.getNodeId()), StringCodec.INSTANCE)
+                .set(String.valueOf(System.currentTimeMillis()), ttlMs, TimeUnit.MILLISECONDS);
+        if (startedAt - renewedAt > fenceAfterNanos) {
+            epoch++;
+            log.warn("Node heartbeat recovered after {}ms", TimeUnit.NANOSECONDS.toMillis(startedAt - renewedAt));
+        }
+        renewedAt = startedAt;
+    }
+
+    /**
+     * 마지막 갱신이 오래돼 다른 노드가 이 노드를 죽은 것으로 볼 수 있는 상태
+     */
+    public boolean isFenced() {
+        return System.nanoTime() - renewedAt > fenceAfterNanos;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 한 번의 MGET 으로 확인한다. 이 노드는 항상 살아 있다.
+     */
+    public Set<String> aliveNodes(Collection<String> nodeIds) {
+        Set<String> alive = new HashSet<>();
+        alive.add(nodeIdentity.getNodeId());
+        if (nodeIds.isEmpty()) {
+            return alive;
+        }
+
+        Map<String, Object> found = redissonClient.getBuckets(StringCodec.INSTANCE)
+                .get(nodeIds.stream().map(this::keyOf).toArray(String[]::new));
+        for (String nodeId : nodeIds) {
+            if (found.containsKey(keyOf(nodeId))) {
+                alive.add(nodeId);
+            }
+        }
+        return alive;
+    }
+
+    private void renew() {
+        try {
+            beat();
+        } catch (Exception e) {
+            // 실패해도 다음 주기에 다시 시도한다. (예외가 나가면 스케줄이 멈춘다)
+            log.warn("Node heartbeat failed", e);
+        }
+    }
+
+    private String keyOf(String nodeId) {
+        return keyPrefix + nodeId;
+    }
+}
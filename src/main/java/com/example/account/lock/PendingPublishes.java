@@ -0,0 +1,66 @@
+package com.example.account.lock;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 계좌 lock 을 잡은 동안 발생한 Redis publish
+ * lock 을 놓을 때 unlock 과 같은 파이프라인으로 한 번에 보낸다. (LockNodeRing#unlock)
+ * lock 범위 밖에서는 defer 가 false 를 돌려주고, 호출한 쪽이 바로 발행한다.
+ */
+public final class PendingPublishes {
+    private static final ThreadLocal<List<Publish>> PENDING = new ThreadLocal<>();
+
+    private PendingPublishes() {
+    }
+
+    public static void open() {
+        PENDING.set(new ArrayList<>());
+    }
+
+    public static List<Publish> close() {
+        List<Publish> publishes = PENDING.get();
+        PENDING.remove();
+        return publishes == null ? List.of() : publishes;
+    }
+
+    public static boolean defer(String topicName, Codec codec, Object message) {
+        List<Publish> publishes = PENDING.get();
+        if (publishes == null) {
+            return false;
+        }
+        publishes.add(new Publish(topicName, codec, message));
+        return true;
+    }
+
+    public static void flush(RedissonClient publisher, List<Publish> publishes) {
+        if (publishes.isEmpty()) {
+            return;
+        }
+        RBatch batch = publisher.createBatch();
+        addTo(batch, publishes);
+        batch.execute();
+    }
+
+    static void addTo(RBatch batch, List<Publish> publishes) {
+        for (Publish publish : publishes) {
+            batch.getTopic(publish.topicName, publish.codec).publishAsync(publish.message);
+        }
+    }
+
+    public static class Publish {
+        private final String topicName;
+        private final Codec codec;
+        private final Object message;
+
+        Publish(String topicName, Codec codec, Object message) {
+            this.topicName = topicName;
+            this.codec = codec;
+            this.message = message;
+        }
+    }
+}
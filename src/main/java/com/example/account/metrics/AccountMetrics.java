@@ -0,0 +1,203 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 / 거래 관련 메트릭 (/actuator/prometheus)
+ * 1. account.lock.wait : lock 취득 대기 시간 (result=acquired|failed)
+ * 2. account.lock.hold : lock 보유 시간
+ * 3. account.errors : ErrorCode 별 실패 횟수
+ * 4. account.transaction.amount : 잔액 사용 / 취소 금액
+ * 5. account.request.statements / rows / db.time : 엔드포인트별 SQL 실행 (RequestProfileFilter)
+ * 6. account.service.statements : 서비스 메서드별 SQL 실행 횟수
+ * 7. account.request.allocated / cpu.time : 엔드포인트 / 결과별 할당량과 CPU 시간
+ * 8. account.lock.lease : lock lease 사용 (event=acquired|reused|released|yielded|lost)
+ * 9. account.lock.reaped : 죽은 노드의 lock / 유실된 registry 기록 정리 (reason=dead-node|stale-entry)
+ * 태그 조합이 고정된 미터는 미리 만들어 두고, 엔드포인트 / 메서드별 미터는 처음 쓸 때 만들어 재사용한다.
+ */
+@Component
+public class AccountMetrics {
+    private final Timer lockAcquired;
+    private final Timer lockFailed;
+    private final Timer lockHold;
+    private final Map<ErrorCode, Counter> errors = new EnumMap<>(ErrorCode.class);
+    private final Map<TransactionType, DistributionSummary> amounts = new EnumMap<>(TransactionType.class);
+    private final Map<String, Counter> leaseEvents;
+    private final Map<String, Counter> reapedLocks;
+    // 엔드포인트 / 서비스 메서드별 미터 (태그 값이 요청마다 달라 처음 쓸 때 만든다)
+    private final ConcurrentMap<String, RequestSqlMeters> requestSql = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> budgetExceeded = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> serviceStatements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, DistributionSummary>> requestAllocated =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> requestCpuTime = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public AccountMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        lockAcquired = lockWaitTimer(meterRegistry, "acquired");
+        lockFailed = lockWaitTimer(meterRegistry, "failed");
+        lockHold = Timer.builder("account.lock.hold")
+                .description("Time an account lock is held")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            errors.put(errorCode, Counter.builder("account.errors")
+                    .description("Failed requests by error code")
+                    .tag("errorCode", errorCode.name())
+                    .register(meterRegistry));
+        }
+        for (TransactionType transactionType : TransactionType.values()) {
+            amounts.put(transactionType, DistributionSummary.builder("account.transaction.amount")
+                    .description("Amount of successful balance transactions")
+                    .baseUnit("won")
+                    .tag("type", transactionType.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        leaseEvents = counters(meterRegistry, "account.lock.lease", "Lock lease events",
+                "event", List.of("acquired", "reused", "released", "yielded", "lost"));
+        reapedLocks = counters(meterRegistry, "account.lock.reaped", "Locks and registry entries reaped",
+                "reason", List.of("dead-node", "stale-entry"));
+    }
+
+    private static Map<String, Counter> counters(
+            MeterRegistry meterRegistry, String name, String description, String tagKey, List<String> tagValues
+    ) {
+        Map<String, Counter> counters = new HashMap<>();
+        for (String tagValue : tagValues) {
+            counters.put(tagValue, Counter.builder(name)
+                    .description(description)
+                    .tag(tagKey, tagValue)
+                    .register(meterRegistry));
+        }
+        return counters;
+    }
+
+    private static Counter counterOf(Map<String, Counter> counters, String tagValue) {
+        Counter counter = counters.get(tagValue);
+        if (counter == null) {
+            throw new IllegalArgumentException("unknown tag value : " + tagValue);
+        }
+        return counter;
+    }
+
+    private static Timer lockWaitTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("account.lock.wait")
+                .description("Time spent waiting for an account lock")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void recordLockWait(long nanos, boolean acquired) {
+        (acquired ? lockAcquired : lockFailed).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(long nanos) {
+        lockHold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockLease(String event) {
+        counterOf(leaseEvents, event).increment();
+    }
+
+    public void recordLockReaped(String reason) {
+        counterOf(reapedLocks, reason).increment();
+    }
+
+    public void recordError(ErrorCode errorCode) {
+        errors.get(errorCode).increment();
+    }
+
+    public void recordAmount(TransactionType transactionType, long amount) {
+        amounts.get(transactionType).record(amount);
+    }
+
+    public void recordRequestSql(String endpoint, RequestProfile profile) {
+        RequestSqlMeters meters = requestSql.computeIfAbsent(endpoint, key -> new RequestSqlMeters(meterRegistry, key));
+        meters.statements.record(profile.getStatements());
+        meters.rows.record(profile.getRows());
+        meters.dbTime.record(profile.getDbTimeNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStatementBudgetExceeded(String endpoint) {
+        budgetExceeded.computeIfAbsent(endpoint, key -> Counter.builder("account.request.statement.budget.exceeded")
+                        .tag("endpoint", key)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    public void recordServiceStatements(String method, int statements) {
+        serviceStatements.computeIfAbsent(method, key -> DistributionSummary.builder("account.service.statements")
+                        .description("SQL statements executed per service method call")
+                        .tag("method", key)
+                        .register(meterRegistry))
+                .record(statements);
+    }
+
+    public void recordRequestResources(String endpoint, String outcome, long allocatedBytes, long cpuNanos) {
+        if (allocatedBytes >= 0) {
+            byOutcome(requestAllocated, endpoint).computeIfAbsent(outcome, key ->
+                            DistributionSummary.builder("account.request.allocated")
+                                    .description("Bytes allocated by the request thread")
+                                    .baseUnit("bytes")
+                                    .tags("endpoint", endpoint, "outcome", key)
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry))
+                    .record(allocatedBytes);
+        }
+        if (cpuNanos >= 0) {
+            byOutcome(requestCpuTime, endpoint).computeIfAbsent(outcome, key ->
+                            Timer.builder("account.request.cpu.time")
+                                    .description("CPU time used by the request thread")
+                                    .tags("endpoint", endpoint, "outcome", key)
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry))
+                    .record(cpuNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static <M> ConcurrentMap<String, M> byOutcome(ConcurrentMap<String, ConcurrentMap<String, M>> meters,
+                                                         String endpoint) {
+        return meters.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>());
+    }
+
+    private static class RequestSqlMeters {
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+        private final Timer dbTime;
+
+        RequestSqlMeters(MeterRegistry meterRegistry, String endpoint) {
+            statements = DistributionSummary.builder("account.request.statements")
+                    .description("SQL statements executed per request")
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            rows = DistributionSummary.builder("account.request.rows")
+                    .description("Rows fetched or affected per request")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            dbTime = Timer.builder("account.request.db.time")
+                    .description("Time spent executing SQL per request")
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.account.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 를 datasource-proxy 로 감싸 요청별 SQL 실행을 센다. (request-profile.jdbc-enabled=true 일 때만)
+ * 꺼져 있으면 프록시를 만들지 않으므로 JDBC 호출에 비용이 없고, RequestProfile 의 SQL 값은 0 이다.
+ * 다른 DataSource 빈에 위임만 하는 DataSource(lazy 커넥션 프록시)는 감싸지 않는다.
+ * 위임 대상인 커넥션 풀 빈이 이미 감싸져 있어서 SQL 이 두 번 세어지기 때문이다.
+ */
+@Component
+@ConditionalOnProperty(name = "request-profile.jdbc-enabled", havingValue = "true")
+public class DataSourceProxyBeanPostProcessor implements BeanPostProcessor {
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)
+                || bean instanceof ProxyDataSource
+                || bean instanceof DelegatingDataSource) {
+            return bean;
+        }
+
+        JdbcProfileListener listener = new JdbcProfileListener();
+        return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                .listener(listener)
+                .proxyResultSet(listener)
+                .build();
+    }
+}
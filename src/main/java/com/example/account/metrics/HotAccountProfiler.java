@@ -0,0 +1,189 @@
+package com.example.account.metrics;
+
+import com.example.account.dto.HotAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌별 lock 경합 프로파일러 (항상 켜져 있음)
+ * 1. lock 시도는 계좌별 카운터(LongAdder)에 바로 더한다. 전역 lock 이 없어 다른 계좌의 기록을 막지 않는다.
+ * 2. 추적 중인 계좌가 capacity 의 두 배가 되면 시도 횟수 상위 capacity 개만 남기고 정리한다. (space-saving)
+ *    새로 들어오는 계좌는 지금까지 밀려난 계좌의 최대 횟수를 이어받는다. (attemptsError = 과대 추정 가능한 최대치)
+ *    정리는 한 스레드만 하고, 그동안 다른 스레드는 기다리지 않는다.
+ *    (정리가 밀려 capacity 의 세 배에 닿으면 새 계좌를 넣으려는 스레드는 정리를 기다린다)
+ *    정리로 지운 계좌에 방금 더한 기록은 다시 만든 항목에 더한다. (밀려난 횟수는 지운 뒤에 읽는다)
+ * 3. 계좌마다 lock 대기 시간을 2의 거듭제곱(마이크로초) 구간 히스토그램으로 모은다.
+ * 메모리는 capacity 에 비례하고, 계좌 수와는 무관하다.
+ */
+@Component
+public class HotAccountProfiler {
+    private static final int BUCKETS = 40;
+
+    private final int capacity;
+    private final int maxEntries;
+    private final int hardMaxEntries;
+    private final Map<String, Entry> entries;
+    private final ReentrantLock trimLock = new ReentrantLock();
+    // 정리로 밀려난 계좌의 최대 시도 횟수
+    private volatile long floor;
+
+    public HotAccountProfiler(@Value("${hot-account.capacity:64}") int capacity) {
+        this.capacity = capacity;
+        this.maxEntries = capacity * 2;
+        this.hardMaxEntries = capacity * 3;
+        this.entries = new ConcurrentHashMap<>(maxEntries * 2);
+    }
+
+    public void record(String accountNumber, long waitNanos, boolean acquired) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0L, waitNanos));
+        while (true) {
+            Entry entry = entries.get(accountNumber);
+            if (entry == null) {
+                if (entries.size() >= maxEntries) {
+                    trim(entries.size() >= hardMaxEntries);
+                }
+                entry = entries.computeIfAbsent(accountNumber, key -> new Entry(key, floor));
+            }
+
+            entry.attempts.increment();
+            if (!acquired) {
+                entry.failures.increment();
+            }
+            entry.waitBuckets.incrementAndGet(bucketOf(micros));
+            entry.maxWaitMicros.accumulate(micros);
+            // 정리가 지우기 전에 더했으면 밀려난 횟수에 들어간다.
+            if (!entry.evicted) {
+                return;
+            }
+        }
+    }
+
+    public List<HotAccount> getHotAccounts(int limit) {
+        return ranked().stream()
+                .limit(Math.min(limit, capacity))
+                .map(ranked -> ranked.entry.toHotAccount())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 시도 횟수 상위 capacity 개만 남긴다.
+     *
+     * @param wait 다른 스레드가 정리 중이면 끝날 때까지 기다린다.
+     */
+    private void trim(boolean wait) {
+        if (wait) {
+            trimLock.lock();
+        } else if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            if (entries.size() < maxEntries) {
+                return;
+            }
+            List<Ranked> ranked = ranked();
+            long evictedMax = floor;
+            for (Ranked evicted : ranked.subList(capacity, ranked.size())) {
+                evicted.entry.evicted = true;
+                entries.remove(evicted.entry.accountNumber, evicted.entry);
+                evictedMax = Math.max(evictedMax, evicted.entry.attempts.sum());
+            }
+            floor = evictedMax;
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    /**
+     * 시도 횟수가 많은 순서 (정렬 도중 바뀌지 않도록 횟수를 먼저 읽어 둔다)
+     */
+    private List<Ranked> ranked() {
+        List<Ranked> ranked = new ArrayList<>(entries.size());
+        entries.values().forEach(entry -> ranked.add(new Ranked(entry, entry.attempts.sum())));
+        ranked.sort(Comparator.comparingLong((Ranked candidate) -> candidate.attempts).reversed());
+        return ranked;
+    }
+
+    private static int bucketOf(long micros) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static class Ranked {
+        private final Entry entry;
+        private final long attempts;
+
+        Ranked(Entry entry, long attempts) {
+            this.entry = entry;
+            this.attempts = attempts;
+        }
+    }
+
+    private static class Entry {
+        private final String accountNumber;
+        private final AtomicLongArray waitBuckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder attempts = new LongAdder();
+        private final long attemptsError;
+        // 정리로 지워진 항목 (이후의 기록은 새 항목에 더한다)
+        private volatile boolean evicted;
+        private final LongAdder failures = new LongAdder();
+        private final LongAccumulator maxWaitMicros = new LongAccumulator(Math::max, 0L);
+
+        Entry(String accountNumber, long inherited) {
+            this.accountNumber = accountNumber;
+            this.attempts.add(inherited);
+            this.attemptsError = inherited;
+        }
+
+        HotAccount toHotAccount() {
+            long[] buckets = new long[BUCKETS];
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                buckets[bucket] = waitBuckets.get(bucket);
+            }
+            long maxMicros = maxWaitMicros.get();
+            return HotAccount.builder()
+                    .accountNumber(accountNumber)
+                    .attempts(attempts.sum())
+                    .attemptsError(attemptsError)
+                    .failures(failures.sum())
+                    .waitP50Millis(percentileMillis(buckets, maxMicros, 0.50))
+                    .waitP99Millis(percentileMillis(buckets, maxMicros, 0.99))
+                    .waitMaxMillis(maxMicros / 1000.0)
+                    .build();
+        }
+
+        /**
+         * 구간의 상한값을 돌려준다. (최대 2배까지 크게 잡힐 수 있다)
+         */
+        private static double percentileMillis(long[] buckets, long maxMicros, double percentile) {
+            long total = 0;
+            for (long count : buckets) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= rank) {
+                    long upperMicros = bucket == 0 ? 0 : (1L << bucket) - 1;
+                    return Math.min(upperMicros, maxMicros) / 1000.0;
+                }
+            }
+            return maxMicros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.account.metrics;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * 프록시 DataSource 에서 SQL 실행 / ResultSet 읽기를 받아 RequestProfile 에 더한다.
+ * 배치 실행은 한 번의 왕복이므로 한 문장으로 센다.
+ * ResultSet 은 메서드 리스너 없이 감싸서 next 만 센다. (호출마다 실행 정보를 만들지 않고,
+ * 요청 프로파일은 ResultSet 을 만들 때 한 번만 찾는다)
+ */
+public class JdbcProfileListener implements QueryExecutionListener, ResultSetProxyLogicFactory {
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.queryStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.queryFinished(affectedRows(execInfo.getResult()));
+        }
+    }
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        return new RowCounter(resultSet, RequestProfile.current());
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer) {
+            return Math.max(0, (Integer) result);
+        }
+        if (result instanceof int[]) {
+            long sum = 0;
+            for (int count : (int[]) result) {
+                sum += Math.max(0, count);
+            }
+            return sum;
+        }
+        return 0;
+    }
+
+    /**
+     * 읽은 행을 profile 에 바로 더한다. (스트리밍으로 읽는 중에도 지금까지 읽은 행 수를 볼 수 있다)
+     */
+    static class RowCounter implements ResultSetProxyLogic {
+        private final ResultSet resultSet;
+        private final RequestProfile profile;
+
+        RowCounter(ResultSet resultSet, RequestProfile profile) {
+            this.resultSet = resultSet;
+            this.profile = profile;
+        }
+
+        @Override
+        public Object invoke(Method method, Object[] args) throws Throwable {
+            // ProxyJdbcObject#getTarget
+            if ("getTarget".equals(method.getName())) {
+                return resultSet;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(resultSet, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (profile != null && Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                profile.rowFetched();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.account.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 계좌 lock 취득 시도 (이벤트 duration = 대기 시간)
+ */
+@Name("com.example.account.LockAcquire")
+@Label("Account Lock Acquire")
+@Category({"Account", "Lock"})
+@Description("Waiting for a Redis account lock")
+@StackTrace(false)
+public class LockAcquireEvent extends Event {
+    @Label("Account Number")
+    public String accountNumber;
+
+    @Label("Acquired")
+    public boolean acquired;
+}
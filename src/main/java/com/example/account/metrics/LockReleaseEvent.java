@@ -0,0 +1,21 @@
+package com.example.account.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 계좌 lock 해제 (이벤트 duration = lock 보유 시간)
+ */
+@Name("com.example.account.LockRelease")
+@Label("Account Lock Release")
+@Category({"Account", "Lock"})
+@Description("Holding a Redis account lock until release")
+@StackTrace(false)
+public class LockReleaseEvent extends Event {
+    @Label("Account Number")
+    public String accountNumber;
+}
@@ -0,0 +1,49 @@
+package com.example.account.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * HTTP 요청 하나 (이벤트 duration = 요청 처리 시간, dbTime = 그 중 SQL 실행에 쓴 시간,
+ * cpuTime / allocated = 요청을 처리한 스레드의 CPU 시간 / 할당량)
+ * statements / rows / dbTime 은 request-profile.jdbc-enabled=true 일 때만 채워진다.
+ */
+@Name("com.example.account.RequestDbTime")
+@Label("Request DB Time")
+@Category({"Account", "Request"})
+@Description("SQL statements executed and time spent in them during one HTTP request")
+@StackTrace(false)
+public class RequestDbTimeEvent extends Event {
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Statements")
+    public int statements;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("DB Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("CPU Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long cpuTime;
+
+    @Label("Allocated")
+    @DataAmount
+    public long allocated;
+}
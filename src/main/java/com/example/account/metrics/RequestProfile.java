@@ -0,0 +1,78 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+
+/**
+ * 현재 스레드에서 처리 중인 요청의 SQL 실행 횟수 / 행 수 / DB 시간 / 실패 코드
+ * RequestProfileFilter 가 요청마다 시작하고 정리하며, JdbcProfileListener 와
+ * GlobalExceptionHandler 가 채운다.
+ * (요청 밖에서는 기록하지 않는다)
+ */
+public final class RequestProfile {
+    public static final String ATTRIBUTE = RequestProfile.class.getName();
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long dbTimeNanos;
+    private long queryStartedAt;
+    private ErrorCode errorCode;
+
+    private RequestProfile() {
+    }
+
+    public static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void queryStarted() {
+        queryStartedAt = System.nanoTime();
+    }
+
+    void queryFinished(long affectedRows) {
+        statements++;
+        rows += affectedRows;
+        dbTimeNanos += System.nanoTime() - queryStartedAt;
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    /**
+     * 요청 처리 중인 경우에만 실패 코드를 남긴다.
+     */
+    public static void markError(ErrorCode errorCode) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.errorCode = errorCode;
+        }
+    }
+
+    public String getOutcome() {
+        return errorCode == null ? "SUCCESS" : errorCode.name();
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getDbTimeNanos() {
+        return dbTimeNanos;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.account.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청마다 RequestProfile 을 시작하고, 끝나면
+ * 1. 엔드포인트별 SQL 실행 횟수 / 행 수 / DB 시간을 메트릭으로 남긴다.
+ * 2. SQL 실행 횟수가 statement-budget 을 넘으면 경고한다. (N+1 탐지)
+ *    1, 2 는 SQL 을 세는 request-profile.jdbc-enabled=true 일 때만 한다.
+ * 3. 요청 스레드의 할당량 / CPU 시간을 엔드포인트, 결과(SUCCESS 또는 ErrorCode)별 메트릭으로 남긴다.
+ * 4. log-sample-rate 비율로 요청 프로파일을 debug 로그로 남긴다.
+ * 5. RequestDbTimeEvent (JFR) 를 남긴다.
+ * 테스트에서 확인할 수 있도록 요청 attribute 로도 남긴다.
+ * (StreamingResponseBody 처럼 비동기로 쓰는 부분은 포함되지 않는다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestProfileFilter extends OncePerRequestFilter {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final AccountMetrics accountMetrics;
+
+    @Value("${request-profile.jdbc-enabled:false}")
+    private boolean jdbcEnabled;
+
+    @Value("${sql.statement-budget:10}")
+    private int statementBudget;
+
+    @Value("${request-profile.log-sample-rate:0.01}")
+    private double logSampleRate;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestDbTimeEvent event = new RequestDbTimeEvent();
+        event.begin();
+        long allocatedBefore = allocatedBytes();
+        long cpuBefore = cpuTimeNanos();
+        RequestProfile profile = RequestProfile.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestProfile.clear();
+            long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+            long cpuNanos = cpuBefore < 0 ? -1 : cpuTimeNanos() - cpuBefore;
+            request.setAttribute(RequestProfile.ATTRIBUTE, profile);
+
+            String endpoint = request.getMethod() + " " + getUriPattern(request);
+            accountMetrics.recordRequestResources(endpoint, profile.getOutcome(), allocated, cpuNanos);
+            if (jdbcEnabled) {
+                accountMetrics.recordRequestSql(endpoint, profile);
+                if (profile.getStatements() > statementBudget) {
+                    accountMetrics.recordStatementBudgetExceeded(endpoint);
+                    log.warn("Statement budget exceeded : {} executed {} statements (budget {})",
+                            endpoint, profile.getStatements(), statementBudget);
+                }
+            }
+            if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.debug("Request profile : {} outcome={} statements={} rows={} dbTime={}us cpu={}us allocated={}B",
+                        endpoint, profile.getOutcome(), profile.getStatements(), profile.getRows(),
+                        profile.getDbTimeNanos() / 1000, cpuNanos / 1000, allocated);
+            }
+
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.uri = request.getRequestURI();
+                event.statements = profile.getStatements();
+                event.rows = profile.getRows();
+                event.dbTime = profile.getDbTimeNanos();
+                event.outcome = profile.getOutcome();
+                event.cpuTime = cpuNanos;
+                event.allocated = allocated;
+                event.commit();
+            }
+        }
+    }
+
+    private static String getUriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    /**
+     * 지원하지 않는 JVM 이면 -1
+     */
+    private static long allocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long cpuTimeNanos() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+}
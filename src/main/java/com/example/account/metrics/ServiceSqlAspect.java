@@ -0,0 +1,37 @@
+package com.example.account.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서비스 메서드별 SQL 실행 횟수 (account.service.statements, 태그 method)
+ * 요청 처리 중에만 기록하며, SQL 을 세는 request-profile.jdbc-enabled=true 일 때만 등록한다.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "request-profile.jdbc-enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ServiceSqlAspect {
+    private final AccountMetrics accountMetrics;
+
+    @Around("execution(public * com.example.account.service.*Service.*(..))")
+    public Object aroundService(ProceedingJoinPoint pjp) throws Throwable {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            return pjp.proceed();
+        }
+
+        int before = profile.getStatements();
+        try {
+            return pjp.proceed();
+        } finally {
+            accountMetrics.recordServiceStatements(
+                    pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName(),
+                    profile.getStatements() - before);
+        }
+    }
+}
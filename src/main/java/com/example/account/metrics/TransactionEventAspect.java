@@ -0,0 +1,41 @@
+package com.example.account.metrics;
+
+import com.example.account.exception.AccountException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * TransactionService 의 public 메서드마다 TransactionOperationEvent 를 남긴다.
+ * 기록 중이 아니면 이벤트 객체만 만들고 버린다. (JIT 가 대부분 제거)
+ */
+@Aspect
+@Component
+public class TransactionEventAspect {
+    @Around("execution(public * com.example.account.service.TransactionService.*(..))")
+    public Object aroundTransactionService(ProceedingJoinPoint pjp) throws Throwable {
+        TransactionOperationEvent event = new TransactionOperationEvent();
+        event.begin();
+        try {
+            Object result = pjp.proceed();
+            commit(event, pjp, null);
+            return result;
+        } catch (AccountException e) {
+            commit(event, pjp, e.getErrorCode().name());
+            throw e;
+        } catch (Throwable e) {
+            commit(event, pjp, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    private static void commit(TransactionOperationEvent event, ProceedingJoinPoint pjp, String errorCode) {
+        if (event.shouldCommit()) {
+            event.operation = pjp.getSignature().getName();
+            event.success = errorCode == null;
+            event.errorCode = errorCode;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.account.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * TransactionService 메서드 실행 (이벤트 duration = 실행 시간)
+ */
+@Name("com.example.account.TransactionOperation")
+@Label("Transaction Operation")
+@Category({"Account", "Transaction"})
+@Description("A TransactionService operation and its outcome")
+@StackTrace(false)
+public class TransactionOperationEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Error Code")
+    public String errorCode;
+}
@@ -1,8 +1,10 @@
 package com.example.account.repository;
 
 import com.example.account.domain.Account;
-import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,9 +14,12 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findFirstByOrderByIdDesc();
 
-    Integer countByAccountUser(AccountUser accountUser);
-
     Optional<Account> findByAccountNumber(String accountNumber);
 
-    List<Account> findByAccountUser(AccountUser accountUser);
+    @Query("select new com.example.account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, a.balance, a.balanceVersion, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a " +
+            "where a.accountUser.id = :userId " +
+            "order by a.id")
+    List<AccountDto> findDtoByAccountUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,26 @@
+package com.example.account.repository;
+
+import com.example.account.domain.AccountUserCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountUserCounterRepository
+        extends JpaRepository<AccountUserCounter, Long>, AccountUserCounterRepositoryCustom {
+    /**
+     * 한도 미만일 때만 1 증가 (0 이면 한도 초과이거나 카운터가 없다)
+     * 같은 사용자의 동시 생성은 이 행의 lock 에서 직렬화되므로 한도를 넘을 수 없다.
+     */
+    @Modifying
+    @Query("update AccountUserCounter c set c.activeAccountCount = c.activeAccountCount + 1 " +
+            "where c.accountUserId = :userId and c.activeAccountCount < :max")
+    int incrementActiveAccountCount(@Param("userId") Long userId, @Param("max") int max);
+
+    @Modifying
+    @Query("update AccountUserCounter c set c.activeAccountCount = c.activeAccountCount - 1 " +
+            "where c.accountUserId = :userId and c.activeAccountCount > 0")
+    int decrementActiveAccountCount(@Param("userId") Long userId);
+}
@@ -0,0 +1,5 @@
+package com.example.account.repository;
+
+public interface AccountUserCounterRepositoryCustom {
+    int reconcileActiveAccountCounts();
+}
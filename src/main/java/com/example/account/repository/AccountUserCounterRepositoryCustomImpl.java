@@ -0,0 +1,44 @@
+package com.example.account.repository;
+
+import com.example.account.domain.AccountUserCounter;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+public class AccountUserCounterRepositoryCustomImpl implements AccountUserCounterRepositoryCustom {
+    private static final String ACTIVE_ACCOUNTS =
+            "(select count(*) from account a where a.account_user_id = u.id and a.account_status = 'IN_USE')";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 카운터가 없는 사용자에게 카운터를 만들고, 실제 사용 중인 계좌 수와 다른 카운터만 바로잡는다.
+     * 바로잡은 사용자 수를 반환한다.
+     * native update 는 바꾸는 테이블을 Hibernate 가 모르면 모든 2차 캐시 region 을 비우므로,
+     * AccountUserCounter 만 바꾼다고 알려 준다.
+     */
+    @Override
+    @Transactional
+    public int reconcileActiveAccountCounts() {
+        int created = executeUpdate("insert into account_user_counter(account_user_id, active_account_count) " +
+                "select u.id, " + ACTIVE_ACCOUNTS + " from account_user u " +
+                "where not exists (select 1 from account_user_counter c where c.account_user_id = u.id)");
+        int repaired = executeUpdate("update account_user_counter c set active_account_count = " +
+                "(select count(*) from account a where a.account_user_id = c.account_user_id " +
+                "and a.account_status = 'IN_USE') " +
+                "where active_account_count <> " +
+                "(select count(*) from account a where a.account_user_id = c.account_user_id " +
+                "and a.account_status = 'IN_USE')");
+        return created + repaired;
+    }
+
+    private int executeUpdate(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(AccountUserCounter.class)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.account.repository;
+
+import com.example.account.domain.TransactionOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransactionOutboxRepository extends JpaRepository<TransactionOutbox, Long> {
+    List<TransactionOutbox> findByPublishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update TransactionOutbox o set o.publishedAt = :publishedAt where o.id in :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+}
@@ -1,12 +1,31 @@
 package com.example.account.repository;
 
 import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    @Query("select new com.example.account.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, t.amount, " +
+            "t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a " +
+            "where t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") String transactionId);
+
+    @Query("select new com.example.account.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, t.amount, " +
+            "t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a " +
+            "where t.transactionId in :transactionIds")
+    List<TransactionDto> findDtoByTransactionIdIn(@Param("transactionIds") Collection<String> transactionIds);
 }
@@ -0,0 +1,31 @@
+package com.example.account.repository;
+
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.dto.TransactionHistoryCursor;
+import com.example.account.dto.TransactionSummary;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+    List<TransactionSummary> findHistory(
+            Long accountId,
+            TransactionHistoryCursor cursor,
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            LocalDateTime from,
+            LocalDateTime to,
+            int limit
+    );
+
+    Stream<TransactionExportRow> streamForExport(
+            String accountNumber,
+            Long userId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int fetchSize
+    );
+}
@@ -0,0 +1,125 @@
+package com.example.account.repository;
+
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.dto.TransactionHistoryCursor;
+import com.example.account.dto.TransactionSummary;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.hibernate.annotations.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * (transacted_at, id) 내림차순 keyset 페이지네이션
+     * offset 없이 커서 이후의 행만 인덱스(account_id, transacted_at, id)로 찾기 때문에
+     * 몇 번째 페이지든 비용이 같다.
+     */
+    @Override
+    public List<TransactionSummary> findHistory(
+            Long accountId,
+            TransactionHistoryCursor cursor,
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            LocalDateTime from,
+            LocalDateTime to,
+            int limit
+    ) {
+        StringBuilder jpql = new StringBuilder()
+                .append("select new com.example.account.dto.TransactionSummary(")
+                .append("t.id, t.transactionId, t.transactionType, t.transactionResultType, ")
+                .append("t.amount, t.balanceSnapshot, t.transactedAt) ")
+                .append("from Transaction t ")
+                .append("where t.account.id = :accountId");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("accountId", accountId);
+
+        if (transactionType != null) {
+            jpql.append(" and t.transactionType = :transactionType");
+            parameters.put("transactionType", transactionType);
+        }
+        if (transactionResultType != null) {
+            jpql.append(" and t.transactionResultType = :transactionResultType");
+            parameters.put("transactionResultType", transactionResultType);
+        }
+        if (from != null) {
+            jpql.append(" and t.transactedAt >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and t.transactedAt < :to");
+            parameters.put("to", to);
+        }
+        if (cursor != null) {
+            jpql.append(" and (t.transactedAt < :cursorTransactedAt")
+                    .append(" or (t.transactedAt = :cursorTransactedAt and t.id < :cursorId))");
+            parameters.put("cursorTransactedAt", cursor.getTransactedAt());
+            parameters.put("cursorId", cursor.getId());
+        }
+        jpql.append(" order by t.transactedAt desc, t.id desc");
+
+        TypedQuery<TransactionSummary> query =
+                entityManager.createQuery(jpql.toString(), TransactionSummary.class);
+        parameters.forEach(query::setParameter);
+
+        return query.setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * export 용 스트리밍 조회
+     * JDBC 커서를 fetchSize 단위로 읽고, 관리되지 않는 projection 으로 변환하기 때문에
+     * 결과 건수와 관계 없이 영속성 컨텍스트가 커지지 않는다. (호출하는 쪽에서 stream 을 닫아야 한다)
+     */
+    @Override
+    public Stream<TransactionExportRow> streamForExport(
+            String accountNumber,
+            Long userId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int fetchSize
+    ) {
+        StringBuilder jpql = new StringBuilder()
+                .append("select new com.example.account.dto.TransactionExportRow(")
+                .append("a.accountNumber, t.transactionId, t.transactionType, t.transactionResultType, ")
+                .append("t.amount, t.balanceSnapshot, t.transactedAt) ")
+                .append("from Transaction t join t.account a ")
+                .append("where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (accountNumber != null) {
+            jpql.append(" and a.accountNumber = :accountNumber");
+            parameters.put("accountNumber", accountNumber);
+        }
+        if (userId != null) {
+            jpql.append(" and a.accountUser.id = :userId");
+            parameters.put("userId", userId);
+        }
+        if (from != null) {
+            jpql.append(" and t.transactedAt >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and t.transactedAt < :to");
+            parameters.put("to", to);
+        }
+        jpql.append(" order by t.id");
+
+        TypedQuery<TransactionExportRow> query =
+                entityManager.createQuery(jpql.toString(), TransactionExportRow.class);
+        parameters.forEach(query::setParameter);
+
+        return query.setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.account.service;
+
+import com.example.account.repository.AccountUserCounterRepository;
+import com.example.account.sharding.ShardContext;
+import com.example.account.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자별 계좌 카운터(AccountUserCounter)를 실제 사용 중인 계좌 수와 맞춘다.
+ * 카운터는 계좌 생성 / 해지와 같은 트랜잭션에서 바뀌므로 정상적으로는 어긋나지 않는다.
+ * 직접 수정한 데이터 등으로 어긋난 경우에만 고치고 경고를 남긴다.
+ * (샤딩을 쓰면 샤드마다 - 사용자의 계좌는 모두 홈 샤드에 있으므로 샤드 안에서 세어도 맞다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountCountReconciler {
+    private final AccountUserCounterRepository accountUserCounterRepository;
+    private final ShardRouter shardRouter;
+
+    @Scheduled(
+            initialDelayString = "${account-user.reconcile-interval-ms}",
+            fixedDelayString = "${account-user.reconcile-interval-ms}"
+    )
+    public void reconcile() {
+        for (int shard : shardRouter.allShards()) {
+            try {
+                int repaired = ShardContext.callOn(shard, accountUserCounterRepository::reconcileActiveAccountCounts);
+                if (repaired > 0) {
+                    log.warn("Repaired active account count drift for {} users on shard {}", repaired, shard);
+                }
+            } catch (Exception e) {
+                log.error("Active account count reconciliation failed for shard {}", shard, e);
+            }
+        }
+    }
+}
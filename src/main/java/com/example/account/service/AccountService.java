@@ -1,21 +1,26 @@
 package com.example.account.service;
 
+import com.example.account.aop.ShardKey;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.AccountUserCounter;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.BalanceChangedEvent;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserCounterRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.sharding.ShardRouter;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.example.account.type.AccountStatus.IN_USE;
 import static com.example.account.type.ErrorCode.MAX_ACCOUNT_PER_USER_10;
@@ -23,8 +28,13 @@ import static com.example.account.type.ErrorCode.MAX_ACCOUNT_PER_USER_10;
 @Service
 @RequiredArgsConstructor
 public class AccountService {
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountUserCounterRepository accountUserCounterRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ShardRouter shardRouter;
 
     /**
      * 사용자가 있는지 조회
@@ -32,32 +42,35 @@ public class AccountService {
      * 계좌를 저장하고, 그 정보를 넘긴다.
      */
     @Transactional
-    public AccountDto createAccount(Long userId, Long initBalance) {
+    public AccountDto createAccount(@ShardKey(ShardKey.Type.USER_ID) Long userId, Long initBalance) {
         AccountUser accountUser = getAccountUser(userId);
 
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber()) + 1) + "")
-                .orElse("1000000000");
-
-        return AccountDto.fromEntity(
-                accountRepository.save(Account.builder()
-                        .accountUser(accountUser)
-                        .accountNumber(newAccountNumber)
-                        .accountStatus(IN_USE)
-                        .balance(initBalance)
-                        .registeredAt(LocalDateTime.now())
-                        .build())
-        );
+        String newAccountNumber = shardRouter.nextAccountNumber(
+                accountRepository.findFirstByOrderByIdDesc()
+                        .map(Account::getAccountNumber)
+                        .orElse(null));
+
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUser)
+                .accountNumber(newAccountNumber)
+                .accountStatus(IN_USE)
+                .balance(initBalance)
+                .registeredAt(LocalDateTime.now())
+                .build());
+
+        applicationEventPublisher.publishEvent(BalanceChangedEvent.fromEntity(account));
+
+        return AccountDto.fromEntity(account);
     }
 
     @Transactional
-    public AccountDto deleteAccount(Long userId, String accountNumber) {
+    public AccountDto deleteAccount(Long userId, @ShardKey String accountNumber) {
         AccountUser accountUser = getAccountUser(userId);
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         validateDeleteAccount(accountUser, account);
 
@@ -65,45 +78,63 @@ public class AccountService {
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        accountUserCounterRepository.decrementActiveAccountCount(accountUser.getId());
+
+        applicationEventPublisher.publishEvent(BalanceChangedEvent.fromEntity(account));
 
         return AccountDto.fromEntity(account);
     }
 
-    @Transactional
-    public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
-
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
+    /**
+     * 사용자 존재 확인(엔티티를 읽지 않음) + 응답에 필요한 컬럼만 읽는 projection 조회
+     * 사용자의 계좌는 모두 사용자의 홈 샤드에 있으므로 샤드 하나만 조회한다.
+     */
+    @Transactional(readOnly = true)
+    public List<AccountDto> getAccountsByUserId(@ShardKey(ShardKey.Type.USER_ID) Long userId) {
+        if (!accountUserRepository.existsById(userId)) {
+            throw AccountException.of(ErrorCode.USER_NOT_FOUND);
+        }
 
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+        return accountRepository.findDtoByAccountUserId(userId);
     }
 
     private AccountUser getAccountUser(Long userId) {
         AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.USER_NOT_FOUND));
         return accountUser;
     }
 
     private static void validateDeleteAccount(AccountUser accountUser, Account account) {
         if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+            throw AccountException.of(ErrorCode.USER_ACCOUNT_UN_MATCH);
         }
 
         if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            throw AccountException.of(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
 
         if (account.getBalance() > 0) {
-            throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
+            throw AccountException.of(ErrorCode.BALANCE_NOT_EMPTY);
         }
     }
 
+    /**
+     * 계좌 수를 세는 대신 사용자의 계좌 카운터를 조건부로 증가시킨다.
+     * 이후에 실패하면 트랜잭션과 함께 롤백된다.
+     * 카운터가 없는 사용자(첫 계좌)는 카운터를 1 로 만든다. (같은 사용자의 첫 계좌를 동시에 만들면 하나는 키 중복으로 실패한다)
+     */
     private void validateCreateAccount(AccountUser accountUser) {
-        if (accountRepository.countByAccountUser(accountUser) >= 10) {
-            throw new AccountException(MAX_ACCOUNT_PER_USER_10);
+        if (accountUserCounterRepository.incrementActiveAccountCount(
+                accountUser.getId(), MAX_ACCOUNT_PER_USER) > 0) {
+            return;
+        }
+        if (accountUserCounterRepository.existsById(accountUser.getId())) {
+            throw AccountException.of(MAX_ACCOUNT_PER_USER_10);
         }
+        accountUserCounterRepository.saveAndFlush(AccountUserCounter.builder()
+                .accountUserId(accountUser.getId())
+                .activeAccountCount(1)
+                .build());
     }
 
 }
@@ -0,0 +1,86 @@
+package com.example.account.service;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountUserChangedEvent;
+import com.example.account.dto.CacheInvalidationMessage;
+import com.example.account.lock.PendingPublishes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * AccountUser 2차 캐시의 노드 간 무효화
+ * 1. 이 노드의 캐시는 Hibernate 가 직접 갱신한다. (엔티티 변경 시)
+ * 2. 커밋 후 변경된 사용자 아이디를 Redis topic 으로 발행하고
+ * 3. 다른 노드는 메시지를 받아 자신의 캐시에서 해당 사용자를 지운다.
+ * 계좌 생성 / 해지로 바뀌는 계좌 수는 캐시하지 않는 AccountUserCounter 에 있으므로 여기를 거치지 않는다.
+ * pub/sub 은 전달을 보장하지 않으므로 region 의 만료 시간(application.conf)이 마지막 안전장치다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountUserCacheInvalidator {
+    private final RedissonClient redissonClient;
+    private final EntityManagerFactory entityManagerFactory;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${account-user.cache-invalidation-topic}")
+    private String topicName;
+
+    private final Codec codec = new TypedJsonJacksonCodec(CacheInvalidationMessage.class);
+
+    private RTopic topic;
+    private int listenerId;
+
+    @PostConstruct
+    public void init() {
+        topic = redissonClient.getTopic(topicName, codec);
+        listenerId = topic.addListener(CacheInvalidationMessage.class, (channel, message) -> onMessage(message));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        topic.removeListener(listenerId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountUserChanged(AccountUserChangedEvent event) {
+        CacheInvalidationMessage message = CacheInvalidationMessage.builder()
+                .nodeId(nodeIdentity.getNodeId())
+                .userId(event.getUserId())
+                .build();
+        try {
+            // 계좌 lock 안이면 unlock 과 함께 보낸다.
+            if (!PendingPublishes.defer(topicName, codec, message)) {
+                topic.publish(message);
+            }
+        } catch (Exception e) {
+            log.error("Failed to publish cache invalidation for userId : {}", event.getUserId(), e);
+        }
+    }
+
+    void onMessage(CacheInvalidationMessage message) {
+        if (nodeIdentity.getNodeId().equals(message.getNodeId())) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.getCache();
+        if (message.getUserId() == null) {
+            cache.evict(AccountUser.class);
+        } else {
+            cache.evict(AccountUser.class, message.getUserId());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.account.service;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.BalanceChangedEvent;
+import com.example.account.dto.BalanceStreamStats;
+import com.example.account.lock.PendingPublishes;
+import com.example.account.tracing.TraceContexts;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 잔액 변경 SSE 스트림
+ * 1. 커밋된 잔액 변경을 Redis topic 으로 발행 (모든 노드가 구독)
+ * 2. 각 노드는 자신에게 연결된 해당 사용자의 구독자에게만 전달
+ * 3. 구독자마다 크기가 제한된 버퍼를 두고, 가득 차면 가장 오래된 이벤트를 버린다.
+ * 4. 구독을 등록한 뒤 현재 잔액을 읽어 먼저 보낸다.
+ * 5. 구독자마다 계좌별로 마지막에 보낸 balanceVersion 을 기억해, 그보다 새롭지 않은 변경은 보내지 않는다.
+ *    (pub/sub 으로 늦게 도착한 이전 변경이 최신 잔액을 덮어쓰지 않는다)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceStreamService {
+    private final RedissonClient redissonClient;
+
+    @Value("${balance-stream.topic}")
+    private String topicName;
+
+    @Value("${balance-stream.buffer-size}")
+    private int bufferSize;
+
+    @Value("${balance-stream.timeout-ms}")
+    private long timeoutMs;
+
+    @Value("${balance-stream.dispatcher-threads}")
+    private int dispatcherThreads;
+
+    private final ConcurrentMap<Long, Set<BalanceSubscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final LongAdder deliveredEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder totalFanOutLatencyMillis = new LongAdder();
+    private final LongAccumulator maxFanOutLatencyMillis = new LongAccumulator(Long::max, 0L);
+
+    private final Codec codec = new TypedJsonJacksonCodec(BalanceChangedEvent.class);
+
+    private RTopic topic;
+    private int listenerId;
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    public void init() {
+        dispatcher = Context.taskWrapping(Executors.newFixedThreadPool(dispatcherThreads));
+        topic = redissonClient.getTopic(topicName, codec);
+        listenerId = topic.addListener(BalanceChangedEvent.class, (channel, event) -> dispatch(event));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        topic.removeListener(listenerId);
+        dispatcher.shutdownNow();
+        subscriptions.values().forEach(subscribers ->
+                subscribers.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    @TransactionalEventListener
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        event.setPublishedAt(System.currentTimeMillis());
+        event.setTraceparent(TraceContexts.currentTraceparent());
+        try {
+            // 계좌 lock 안이면 unlock 과 함께 보낸다.
+            if (!PendingPublishes.defer(topicName, codec, event)) {
+                topic.publish(event);
+            }
+        } catch (Exception e) {
+            log.error("Failed to publish balance event for accountNumber : {}", event.getAccountNumber(), e);
+        }
+    }
+
+    /**
+     * 구독을 먼저 등록한 뒤 현재 잔액(snapshot)을 읽는다. (그 사이 커밋된 변경을 놓치지 않는다)
+     * snapshot 을 읽는 동안 도착한 변경은 따로 모아 두었다가 snapshot 다음에 보내고,
+     * snapshot 보다 새롭지 않은 변경(snapshot 에 이미 반영됐거나 그 전에 커밋된 변경)은 보내지 않는다.
+     */
+    public SseEmitter subscribe(Long userId, Supplier<List<AccountDto>> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        BalanceSubscription subscription = new BalanceSubscription(emitter, bufferSize);
+
+        subscriptions.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet())
+                .add(subscription);
+        emitter.onCompletion(() -> unsubscribe(userId, subscription));
+        emitter.onTimeout(() -> unsubscribe(userId, subscription));
+        emitter.onError(e -> unsubscribe(userId, subscription));
+
+        List<AccountDto> accounts;
+        try {
+            accounts = snapshot.get();
+        } catch (RuntimeException e) {
+            unsubscribe(userId, subscription);
+            throw e;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (subscription) {
+            for (AccountDto accountDto : accounts) {
+                subscription.versions.put(accountDto.getAccountNumber(), accountDto.getBalanceVersion());
+                enqueue(subscription, BalanceChangedEvent.builder()
+                        .userId(userId)
+                        .accountNumber(accountDto.getAccountNumber())
+                        .balance(accountDto.getBalance())
+                        .balanceVersion(accountDto.getBalanceVersion())
+                        .publishedAt(now)
+                        .build());
+            }
+            for (BalanceChangedEvent event : subscription.pending) {
+                if (isNewer(subscription, event)) {
+                    enqueue(subscription, event);
+                }
+            }
+            subscription.pending.clear();
+            subscription.primed = true;
+        }
+
+        return emitter;
+    }
+
+    public void dispatch(BalanceChangedEvent event) {
+        Set<BalanceSubscription> subscribers = subscriptions.get(event.getUserId());
+        if (subscribers == null) {
+            return;
+        }
+        // 발행한 노드의 요청 trace 를 이어받아 drain 작업까지 전파한다.
+        try (Scope ignored = TraceContexts.extract(event.getTraceparent()).makeCurrent()) {
+            subscribers.forEach(subscription -> deliver(subscription, event));
+        }
+    }
+
+    public BalanceStreamStats getStats() {
+        long delivered = deliveredEvents.sum();
+        return BalanceStreamStats.builder()
+                .connections(getConnectionCount())
+                .deliveredEvents(delivered)
+                .droppedEvents(droppedEvents.sum())
+                .averageFanOutLatencyMillis(delivered == 0 ? 0 :
+                        (double) totalFanOutLatencyMillis.sum() / delivered)
+                .maxFanOutLatencyMillis(maxFanOutLatencyMillis.get())
+                .build();
+    }
+
+    public int getConnectionCount() {
+        return subscriptions.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    private void deliver(BalanceSubscription subscription, BalanceChangedEvent event) {
+        if (!subscription.primed) {
+            synchronized (subscription) {
+                if (!subscription.primed) {
+                    // snapshot 을 읽는 중, snapshot 다음에 보낸다.
+                    if (subscription.pending.size() >= bufferSize) {
+                        subscription.pending.remove(0);
+                        droppedEvents.increment();
+                    }
+                    subscription.pending.add(event);
+                    return;
+                }
+            }
+        }
+        if (isNewer(subscription, event)) {
+            enqueue(subscription, event);
+        }
+    }
+
+    /**
+     * 이 구독자에게 보낸 같은 계좌의 변경보다 새로우면 기억하고 true
+     */
+    private static boolean isNewer(BalanceSubscription subscription, BalanceChangedEvent event) {
+        boolean[] newer = new boolean[1];
+        subscription.versions.compute(event.getAccountNumber(), (accountNumber, sent) -> {
+            newer[0] = sent == null || event.getBalanceVersion() > sent;
+            return newer[0] ? event.getBalanceVersion() : sent;
+        });
+        return newer[0];
+    }
+
+    private void enqueue(BalanceSubscription subscription, BalanceChangedEvent event) {
+        while (!subscription.buffer.offer(event)) {
+            if (subscription.buffer.poll() != null) {
+                droppedEvents.increment();
+            }
+        }
+
+        if (subscription.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(BalanceSubscription subscription) {
+        do {
+            BalanceChangedEvent event;
+            while ((event = subscription.buffer.poll()) != null) {
+                if (!send(subscription, event)) {
+                    return;
+                }
+            }
+            subscription.draining.set(false);
+        } while (!subscription.buffer.isEmpty()
+                && subscription.draining.compareAndSet(false, true));
+    }
+
+    private boolean send(BalanceSubscription subscription, BalanceChangedEvent event) {
+        try {
+            subscription.emitter.send(SseEmitter.event()
+                    .name("balance")
+                    .data(event.toAccountInfo()));
+        } catch (Exception e) {
+            log.debug("Balance stream closed for userId : {}", event.getUserId());
+            unsubscribe(event.getUserId(), subscription);
+            subscription.emitter.completeWithError(e);
+            return false;
+        }
+
+        long latency = Math.max(0L, System.currentTimeMillis() - event.getPublishedAt());
+        deliveredEvents.increment();
+        totalFanOutLatencyMillis.add(latency);
+        maxFanOutLatencyMillis.accumulate(latency);
+        return true;
+    }
+
+    private void unsubscribe(Long userId, BalanceSubscription subscription) {
+        subscriptions.computeIfPresent(userId, (key, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    static class BalanceSubscription {
+        private final SseEmitter emitter;
+        private final BlockingQueue<BalanceChangedEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // snapshot 을 보내기 전까지 도착한 변경 (subscription 을 잡고 읽고 쓴다)
+        private final List<BalanceChangedEvent> pending = new ArrayList<>();
+        // 계좌번호 -> 마지막으로 보낸 balanceVersion
+        private final ConcurrentMap<String, Long> versions = new ConcurrentHashMap<>();
+        private volatile boolean primed;
+
+        BalanceSubscription(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.metrics.HotAccountProfiler;
+import com.example.account.metrics.LockReleaseEvent;
+import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -14,20 +20,48 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final AccountMetrics accountMetrics;
+    private final HotAccountProfiler hotAccountProfiler;
+    private final LockTimeAdvisor lockTimeAdvisor;
 
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
+        String endpoint = pjp.getSignature().toShortString();
+        LockTimeAdvisor.LockTimes lockTimes = lockTimeAdvisor.timesFor(endpoint, accountLock);
+
         // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
+        long startedAt = System.nanoTime();
+        try {
+            lockService.lock(request.getAccountNumber(), lockTimes.getWaitMs(), lockTimes.getLeaseMs());
+        } catch (AccountException e) {
+            if (e.getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK) {
+                long waitNanos = System.nanoTime() - startedAt;
+                hotAccountProfiler.record(request.getAccountNumber(), waitNanos, false);
+                lockTimeAdvisor.record(endpoint, waitNanos, false, 0L);
+            }
+            throw e;
+        }
+        long lockedAt = System.nanoTime();
+        hotAccountProfiler.record(request.getAccountNumber(), lockedAt - startedAt, true);
+        LockReleaseEvent releaseEvent = new LockReleaseEvent();
+        releaseEvent.begin();
 
         try {
             return pjp.proceed();
         } finally {
             // lock 해제
             lockService.unLock(request.getAccountNumber());
+            long holdNanos = System.nanoTime() - lockedAt;
+            accountMetrics.recordLockHold(holdNanos);
+            lockTimeAdvisor.record(endpoint, lockedAt - startedAt, true, holdNanos);
+            if (releaseEvent.shouldCommit()) {
+                releaseEvent.accountNumber = request.getAccountNumber();
+                releaseEvent.commit();
+            }
         }
     }
 }
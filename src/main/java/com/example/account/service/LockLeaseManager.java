@@ -0,0 +1,307 @@
+package com.example.account.service;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.dto.LockYieldRequest;
+import com.example.account.lock.LockNodeRing;
+import com.example.account.lock.LockRegistry;
+import com.example.account.metrics.AccountMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 요청이 몰리는 계좌의 lock lease
+ * 1. 노드가 계좌의 Redis lock 을 한 번 잡아 lease 로 들고 있고 (watchdog 이 lock.lease.duration-ms 마다 연장),
+ *    그 계좌의 요청은 노드 안의 공정한 ReentrantLock 대기열로 하나씩 처리한다.
+ *    (Redis lock 의 소유자는 요청 스레드가 아니라 노드 = 클라이언트 아이디 + LEASE_THREAD_ID)
+ * 2. lock.lease.idle-ms 동안 요청이 없으면 lease 를 놓는다.
+ * 3. 다른 노드가 lock 을 얻지 못하면 topic 으로 양보를 요청하고, lease 를 든 노드는
+ *    진행 중인 요청이 끝나는 즉시 놓은 뒤 yield-backoff-ms 동안 다시 잡지 않는다.
+ * 4. lease 는 Redis 에서 만료 시간을 정한 때(잡거나 다시 확인한 때)부터 lock.lease.duration-ms 안에서만 그대로 재사용한다.
+ *    그 뒤에는 Redis 에서 아직 이 노드가 들고 있는지 확인하면서 만료 시간을 다시 늘리고,
+ *    잃었으면 (watchdog 연장 실패, 만료, LockReaper 해제) 다시 잡는다.
+ * lease 로 잠글 계좌(lock.lease.accounts)는 모든 노드에서 같게 설정해야 한다.
+ * RedLock 으로 잠그는 계좌(lock.quorum-accounts)는 lease 를 쓰지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LockLeaseManager {
+    static final long LEASE_THREAD_ID = -1L;
+    private static final long YIELD_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final LockNodeRing lockNodeRing;
+    private final RedissonClient redissonClient;
+    private final NodeIdentity nodeIdentity;
+    private final AccountMetrics accountMetrics;
+    private final LockRegistry lockRegistry;
+
+    @Value("${lock.lease.accounts}")
+    private String[] accounts;
+
+    @Value("${lock.lease.duration-ms}")
+    private long durationMs;
+
+    @Value("${lock.lease.idle-ms}")
+    private long idleMs;
+
+    @Value("${lock.lease.yield-backoff-ms}")
+    private long yieldBackoffMs;
+
+    @Value("${lock.lease.topic}")
+    private String topicName;
+
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private Set<String> leaseAccounts = Set.of();
+    private boolean leaseAll;
+
+    private RTopic topic;
+    private int listenerId;
+
+    @PostConstruct
+    public void init() {
+        leaseAccounts = Arrays.stream(accounts)
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        leaseAll = leaseAccounts.contains("*");
+        topic = redissonClient.getTopic(topicName, new TypedJsonJacksonCodec(LockYieldRequest.class));
+        listenerId = topic.addListener(LockYieldRequest.class, (channel, request) -> onYieldRequest(request));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        topic.removeListener(listenerId);
+        leases.forEach((accountNumber, lease) -> {
+            if (lease.local.tryLock()) {
+                try {
+                    release(accountNumber, lease);
+                } finally {
+                    lease.local.unlock();
+                }
+            }
+        });
+    }
+
+    public boolean covers(String accountNumber) {
+        return (leaseAll || leaseAccounts.contains(accountNumber)) && !lockNodeRing.isQuorum(accountNumber);
+    }
+
+    public boolean tryLock(String accountNumber, long waitTime, TimeUnit unit)
+            throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        while (true) {
+            Lease lease = leases.computeIfAbsent(accountNumber, key -> new Lease());
+            if (!lease.local.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            if (lease.retired) {
+                // idle 로 정리된 lease, 새 lease 로 다시 시도
+                lease.local.unlock();
+                continue;
+            }
+
+            boolean acquired = false;
+            try {
+                if (lease.held && !confirmHeld(accountNumber, lease)) {
+                    log.warn("Lost lock lease for accountNumber : {}", accountNumber);
+                    lease.held = false;
+                    lockRegistry.unregister(LockService.getLockKey(accountNumber), LEASE_THREAD_ID);
+                    accountMetrics.recordLockLease("lost");
+                }
+                long startedAt = System.nanoTime();
+                if (lease.held) {
+                    accountMetrics.recordLockLease("reused");
+                    acquired = true;
+                } else if (acquire(accountNumber, lease, deadline)) {
+                    lease.held = true;
+                    lease.validUntilNanos = validUntil(startedAt);
+                    lockRegistry.register(accountNumber, LockService.getLockKey(accountNumber),
+                            LEASE_THREAD_ID, "lease", -1L);
+                    accountMetrics.recordLockLease("acquired");
+                    acquired = true;
+                }
+                lease.lastUsedNanos = System.nanoTime();
+                return acquired;
+            } finally {
+                if (!acquired) {
+                    lease.local.unlock();
+                }
+            }
+        }
+    }
+
+    public void unlock(String accountNumber) {
+        Lease lease = leases.get(accountNumber);
+        if (lease == null || !lease.local.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException("lease is not held for " + accountNumber);
+        }
+        try {
+            lease.lastUsedNanos = System.nanoTime();
+            if (lease.yieldRequested && lease.held) {
+                accountMetrics.recordLockLease("yielded");
+                release(accountNumber, lease);
+            }
+        } finally {
+            lease.local.unlock();
+        }
+    }
+
+    /**
+     * idle-ms 동안 쓰이지 않은 lease 를 놓고 정리한다.
+     */
+    @Scheduled(fixedDelayString = "${lock.lease.idle-ms}")
+    public void releaseIdle() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+        leases.forEach((accountNumber, lease) -> {
+            if (System.nanoTime() - lease.lastUsedNanos < idleNanos || !lease.local.tryLock()) {
+                return;
+            }
+            try {
+                if (System.nanoTime() - lease.lastUsedNanos < idleNanos || lease.local.hasQueuedThreads()) {
+                    return;
+                }
+                if (lease.held) {
+                    accountMetrics.recordLockLease("released");
+                    release(accountNumber, lease);
+                }
+                lease.retired = true;
+                leases.remove(accountNumber, lease);
+            } finally {
+                lease.local.unlock();
+            }
+        });
+    }
+
+    void onYieldRequest(LockYieldRequest request) {
+        if (nodeIdentity.getNodeId().equals(request.getNodeId())) {
+            return;
+        }
+        Lease lease = leases.get(request.getAccountNumber());
+        if (lease == null) {
+            return;
+        }
+
+        lease.yieldRequested = true;
+        // 진행 중인 요청이 없으면 바로 놓고, 있으면 그 요청의 unlock 에서 놓는다.
+        if (lease.local.tryLock()) {
+            try {
+                if (lease.held) {
+                    accountMetrics.recordLockLease("yielded");
+                    release(request.getAccountNumber(), lease);
+                }
+            } finally {
+                lease.local.unlock();
+            }
+        }
+    }
+
+    /**
+     * 유효 기간 안이면 그대로 쓰고, 지났으면 Redis 에서 아직 이 노드가 들고 있는지 확인하면서
+     * 만료 시간을 duration-ms 로 다시 늘린다. (한 번의 스크립트)
+     * 확인만 하면 watchdog 이 멈춰 key 가 곧 만료될 때에도 duration-ms 동안 재사용하게 된다.
+     */
+    private boolean confirmHeld(String accountNumber, Lease lease) {
+        if (System.nanoTime() - lease.validUntilNanos < 0) {
+            return true;
+        }
+        long checkedAt = System.nanoTime();
+        String lockKey = LockService.getLockKey(accountNumber);
+        if (!lockNodeRing.renew(lockKey, lockNodeRing.ownerOf(lockKey, LEASE_THREAD_ID), durationMs)) {
+            return false;
+        }
+        lease.validUntilNanos = validUntil(checkedAt);
+        return true;
+    }
+
+    /**
+     * checkedAt 이전에 보낸 명령으로 만료 시간을 duration-ms 로 정했을 때, Redis 에서 만료되기 전까지
+     * (노드와 Redis 의 시계 속도 차이로 duration-ms 의 1% + 2ms 를 뺀다, RedLock 과 같은 여유)
+     */
+    private long validUntil(long checkedAt) {
+        long clockDriftMs = durationMs / 100 + 2;
+        return checkedAt + TimeUnit.MILLISECONDS.toNanos(durationMs - clockDriftMs);
+    }
+
+    private boolean acquire(String accountNumber, Lease lease, long deadline)
+            throws InterruptedException, ExecutionException {
+        long backoffNanos = lease.notBeforeNanos - System.nanoTime();
+        if (backoffNanos > 0) {
+            if (backoffNanos >= deadline - System.nanoTime()) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(backoffNanos);
+        }
+
+        RLock lock = redisLock(accountNumber);
+        long waitNanos = 0;
+        while (true) {
+            // leaseTime -1 : watchdog 이 놓을 때까지 연장한다.
+            if (lock.tryLockAsync(waitNanos, -1, TimeUnit.NANOSECONDS, LEASE_THREAD_ID).get()) {
+                return true;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            // pub/sub 은 유실될 수 있으므로 기다리는 동안 주기적으로 다시 요청한다.
+            topic.publish(LockYieldRequest.builder()
+                    .nodeId(nodeIdentity.getNodeId())
+                    .accountNumber(accountNumber)
+                    .build());
+            waitNanos = Math.min(remaining, YIELD_RETRY_NANOS);
+        }
+    }
+
+    /**
+     * lease.local 을 잡은 상태에서만 호출한다.
+     */
+    private void release(String accountNumber, Lease lease) {
+        if (lease.yieldRequested) {
+            lease.notBeforeNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(yieldBackoffMs);
+        }
+        lease.yieldRequested = false;
+        if (!lease.held) {
+            return;
+        }
+        lease.held = false;
+        lockRegistry.unregister(LockService.getLockKey(accountNumber), LEASE_THREAD_ID);
+        try {
+            redisLock(accountNumber).unlockAsync(LEASE_THREAD_ID).get();
+        } catch (Exception e) {
+            // 이미 만료된 lease, watchdog 이 멈췄다면 Redis 에서 곧 만료된다.
+            log.warn("Failed to release lock lease for accountNumber : {}", accountNumber, e);
+        }
+    }
+
+    private RLock redisLock(String accountNumber) {
+        return lockNodeRing.getLock(accountNumber, LockService.getLockKey(accountNumber));
+    }
+
+    private static class Lease {
+        private final ReentrantLock local = new ReentrantLock(true);
+        // local 을 잡은 상태에서 읽고 쓴다.
+        private boolean held;
+        private boolean retired;
+        private long notBeforeNanos;
+        private long validUntilNanos;
+        private volatile boolean yieldRequested;
+        private volatile long lastUsedNanos = System.nanoTime();
+    }
+}
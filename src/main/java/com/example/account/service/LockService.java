@@ -1,30 +1,89 @@
 package com.example.account.service;
 
+import com.example.account.dto.BalanceChangedEvent;
 import com.example.account.exception.AccountException;
+import com.example.account.lock.LockNodeRing;
+import com.example.account.lock.LockRegistry;
+import com.example.account.lock.NodeHeartbeat;
+import com.example.account.lock.PendingPublishes;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.metrics.LockAcquireEvent;
 import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * 계좌 lock (lock key 는 LockNodeRing 이 고른 Redis 노드에 걸린다)
+ * lease 대상 계좌는 요청마다 Redis lock 을 잡지 않고 LockLeaseManager 의 노드 lease 를 쓴다.
+ * lock 을 잡은 동안의 Redis publish (PendingPublishes) 는 unlock 과 함께 한 번의 왕복으로 보낸다.
+ * 잡은 lock 은 LockRegistry 에 기록해 두고, 노드가 죽으면 LockReaper 가 해제한다. (RedLock 계좌 제외)
+ * heartbeat 를 갱신하지 못한 노드(NodeHeartbeat 차단)는 lock 을 주지 않고, 잔액 변경을 commit 하지 않는다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
+    // lock 을 잡을 때의 heartbeat epoch (lock 을 든 스레드에만 있다)
+    private static final ThreadLocal<Long> LOCKED_EPOCH = new ThreadLocal<>();
+    // lock 을 잡을 때의 leaseMs (재진입한 lock 을 놓을 때 만료 시간을 다시 정한다)
+    private static final ThreadLocal<Long> LOCKED_LEASE_MS = new ThreadLocal<>();
+
+    private final LockNodeRing lockNodeRing;
+    private final AccountMetrics accountMetrics;
+    private final LockLeaseManager lockLeaseManager;
     private final RedissonClient redissonClient;
+    private final LockRegistry lockRegistry;
+    private final NodeHeartbeat nodeHeartbeat;
 
-    public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+    /**
+     * @param waitMs  lock 을 기다리는 최대 시간
+     * @param leaseMs lock 이 자동으로 풀리는 시간, 0 보다 커야 한다. (lease 계좌는 watchdog 으로 연장하므로 무시)
+     */
+    public void lock(String accountNumber, long waitMs, long leaseMs) {
+        boolean leased = lockLeaseManager.covers(accountNumber);
+        if (!leased && !lockNodeRing.isQuorum(accountNumber) && leaseMs <= 0) {
+            // 한 번의 왕복으로 하는 해제(LockNodeRing#unlock)는 watchdog 연장을 취소하지 않는다.
+            throw new IllegalArgumentException("leaseMs must be positive : " + leaseMs);
+        }
         log.debug("Trying lock for accountNumber : {}", accountNumber);
+        long epoch = nodeHeartbeat.getEpoch();
+        if (nodeHeartbeat.isFenced()) {
+            log.warn("Node is fenced, refusing lock for accountNumber : {}", accountNumber);
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
 
+        LockAcquireEvent event = new LockAcquireEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            boolean isLock = leased
+                    ? lockLeaseManager.tryLock(accountNumber, waitMs, TimeUnit.MILLISECONDS)
+                    : lockNodeRing.getLock(accountNumber, getLockKey(accountNumber))
+                    .tryLock(waitMs, leaseMs, TimeUnit.MILLISECONDS);
+            accountMetrics.recordLockWait(System.nanoTime() - startedAt, isLock);
+            if (event.shouldCommit()) {
+                event.accountNumber = accountNumber;
+                event.acquired = isLock;
+                event.commit();
+            }
             if (!isLock) {
-                log.error("======Lock acquisition failed=====");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                log.debug("Lock acquisition failed for accountNumber : {}", accountNumber);
+                throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+            PendingPublishes.open();
+            LOCKED_EPOCH.set(epoch);
+            LOCKED_LEASE_MS.set(leaseMs);
+            if (!leased && !lockNodeRing.isQuorum(accountNumber)) {
+                Thread thread = Thread.currentThread();
+                lockRegistry.register(accountNumber, getLockKey(accountNumber),
+                        thread.getId(), thread.getName(), leaseMs);
             }
         } catch (AccountException e) {
             throw e;
@@ -35,10 +94,43 @@ public class LockService {
 
     public void unLock(String accountNumber) {
         log.debug("Unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        LOCKED_EPOCH.remove();
+        Long leaseMs = LOCKED_LEASE_MS.get();
+        LOCKED_LEASE_MS.remove();
+        List<PendingPublishes.Publish> publishes = PendingPublishes.close();
+        if (lockLeaseManager.covers(accountNumber)) {
+            try {
+                lockLeaseManager.unlock(accountNumber);
+            } finally {
+                PendingPublishes.flush(redissonClient, publishes);
+            }
+        } else if (lockNodeRing.isQuorum(accountNumber)) {
+            lockNodeRing.unlock(accountNumber, getLockKey(accountNumber), redissonClient, publishes);
+        } else {
+            // registry 기록은 unlock 과 같은 왕복으로 지운다.
+            long threadId = Thread.currentThread().getId();
+            lockNodeRing.unlock(accountNumber, getLockKey(accountNumber), leaseMs == null ? -1L : leaseMs,
+                    redissonClient, publishes,
+                    batch -> lockRegistry.unregister(batch, getLockKey(accountNumber), threadId));
+        }
+    }
+
+    /**
+     * lock 을 잡은 뒤 이 노드가 차단된 적이 있으면 (다른 노드가 lock 을 해제했을 수 있다) 잔액 변경을 rollback 한다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void verifyLockBeforeCommit(BalanceChangedEvent event) {
+        Long epoch = LOCKED_EPOCH.get();
+        if (epoch == null) {
+            return;
+        }
+        if (nodeHeartbeat.isFenced() || nodeHeartbeat.getEpoch() != epoch) {
+            log.warn("Node was fenced while holding lock for accountNumber : {}", event.getAccountNumber());
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
     }
 
-    private static String getLockKey(String accountNumber) {
+    static String getLockKey(String accountNumber) {
         return "ACLK: " + accountNumber;
     }
 }
@@ -0,0 +1,200 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별 계좌 lock 대기 / lease 시간
+ * 1. 기본은 @AccountLock 의 tryLockTime / leaseTime 이다.
+ * 2. lock.adaptive.enabled 이면 interval-ms 마다 그동안 관측한 값으로 다시 정한다. (표본이 min-samples 이상일 때)
+ *    - lease = p99 보유 시간 * lease-multiplier, [min-lease-ms, leaseTime] 범위
+ *      (짧은 작업이 죽은 노드의 lock 때문에 leaseTime 동안 막히지 않도록, leaseTime 보다 길게 잡지는 않는다)
+ *    - wait = p99 대기 시간 * wait-multiplier, [tryLockTime, max-wait-ms] 범위
+ *      (대기 중 실패가 있었으면 현재 값의 2배, 경합이 심한 계좌가 너무 일찍 실패하지 않도록 tryLockTime 보다 짧게 기다리지는 않는다)
+ * 3. 결정은 account.lock.adaptive.lease / wait (gauge, 밀리초) 와
+ *    account.lock.adaptive.adjustments (kind=lease|wait, direction=up|down) 로 남긴다.
+ * 시간은 2의 거듭제곱(마이크로초) 구간 히스토그램의 상한값으로 계산하므로 최대 2배 크게 잡힐 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LockTimeAdvisor {
+    private static final int BUCKETS = 40;
+    private static final double PERCENTILE = 0.99;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${lock.adaptive.enabled}")
+    private boolean enabled;
+
+    @Value("${lock.adaptive.min-samples}")
+    private int minSamples;
+
+    @Value("${lock.adaptive.lease-multiplier}")
+    private double leaseMultiplier;
+
+    @Value("${lock.adaptive.min-lease-ms}")
+    private long minLeaseMs;
+
+    @Value("${lock.adaptive.wait-multiplier}")
+    private double waitMultiplier;
+
+    @Value("${lock.adaptive.max-wait-ms}")
+    private long maxWaitMs;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public LockTimes timesFor(String endpoint, AccountLock accountLock) {
+        if (!enabled) {
+            return new LockTimes(accountLock.tryLockTime(), accountLock.leaseTime());
+        }
+        Endpoint state = endpoints.computeIfAbsent(endpoint, key -> register(key, accountLock));
+        return new LockTimes(state.waitMs, state.leaseMs);
+    }
+
+    /**
+     * @param holdNanos lock 을 얻지 못했으면 무시된다.
+     */
+    public void record(String endpoint, long waitNanos, boolean acquired, long holdNanos) {
+        Endpoint state = endpoints.get(endpoint);
+        if (state == null) {
+            return;
+        }
+        if (acquired) {
+            state.waits.incrementAndGet(bucketOf(waitNanos));
+            state.holds.incrementAndGet(bucketOf(holdNanos));
+        } else {
+            state.failures.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lock.adaptive.interval-ms}")
+    public void adapt() {
+        endpoints.forEach(this::adapt);
+    }
+
+    private void adapt(String endpoint, Endpoint state) {
+        long[] holds = drain(state.holds);
+        long[] waits = drain(state.waits);
+        long failures = state.failures.sumThenReset();
+
+        if (count(holds) >= minSamples) {
+            long leaseMs = clamp((long) Math.ceil(percentileMillis(holds) * leaseMultiplier),
+                    Math.min(minLeaseMs, state.maxLeaseMs), state.maxLeaseMs);
+            state.leaseMs = adjust(endpoint, "lease", state.leaseMs, leaseMs);
+        }
+        if (failures > 0) {
+            state.waitMs = adjust(endpoint, "wait", state.waitMs,
+                    clamp(state.waitMs * 2, state.minWaitMs, Math.max(maxWaitMs, state.minWaitMs)));
+        } else if (count(waits) >= minSamples) {
+            long waitMs = clamp((long) Math.ceil(percentileMillis(waits) * waitMultiplier),
+                    state.minWaitMs, Math.max(maxWaitMs, state.minWaitMs));
+            state.waitMs = adjust(endpoint, "wait", state.waitMs, waitMs);
+        }
+    }
+
+    private long adjust(String endpoint, String kind, long current, long next) {
+        if (next != current) {
+            log.info("Adjust lock {} for {} : {}ms -> {}ms", kind, endpoint, current, next);
+            Counter.builder("account.lock.adaptive.adjustments")
+                    .description("Adaptive lock time changes")
+                    .tags("endpoint", endpoint, "kind", kind, "direction", next > current ? "up" : "down")
+                    .register(meterRegistry)
+                    .increment();
+        }
+        return next;
+    }
+
+    private Endpoint register(String endpoint, AccountLock accountLock) {
+        Endpoint state = new Endpoint(accountLock);
+        Gauge.builder("account.lock.adaptive.lease", state, value -> value.leaseMs)
+                .description("Current account lock lease time")
+                .tag("endpoint", endpoint)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("account.lock.adaptive.wait", state, value -> value.waitMs)
+                .description("Current account lock wait time")
+                .tag("endpoint", endpoint)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return state;
+    }
+
+    private static long[] drain(AtomicLongArray buckets) {
+        long[] counts = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] = buckets.getAndSet(bucket, 0);
+        }
+        return counts;
+    }
+
+    private static long count(long[] buckets) {
+        long total = 0;
+        for (long count : buckets) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * 구간의 상한값 (밀리초)
+     */
+    private static double percentileMillis(long[] buckets) {
+        long rank = (long) Math.ceil(count(buckets) * PERCENTILE);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                return (bucket == 0 ? 0 : (1L << bucket) - 1) / 1000.0;
+            }
+        }
+        return ((1L << (BUCKETS - 1)) - 1) / 1000.0;
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0L, nanos));
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class LockTimes {
+        private final long waitMs;
+        private final long leaseMs;
+    }
+
+    private static class Endpoint {
+        private final long minWaitMs;
+        private final long maxLeaseMs;
+        private final AtomicLongArray holds = new AtomicLongArray(BUCKETS);
+        private final AtomicLongArray waits = new AtomicLongArray(BUCKETS);
+        private final LongAdder failures = new LongAdder();
+        private volatile long waitMs;
+        private volatile long leaseMs;
+
+        Endpoint(AccountLock accountLock) {
+            this.minWaitMs = accountLock.tryLockTime();
+            this.maxLeaseMs = accountLock.leaseTime();
+            this.waitMs = minWaitMs;
+            this.leaseMs = maxLeaseMs;
+        }
+    }
+}
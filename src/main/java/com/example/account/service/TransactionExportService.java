@@ -0,0 +1,91 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionExport;
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.sharding.ShardRouter;
+import com.example.account.sharding.ShardTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * 거래 대량 export (정산용)
+ * DB 커서에서 읽은 행을 그대로 응답 스트림에 기록한다.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+    private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTemplate shardTemplate;
+    private final TransactionExportWriter transactionExportWriter;
+
+    @Value("${export.fetch-size}")
+    private int fetchSize;
+
+    public TransactionExportService(
+            TransactionRepository transactionRepository,
+            ShardRouter shardRouter,
+            ShardTemplate shardTemplate,
+            ObjectMapper objectMapper
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.shardRouter = shardRouter;
+        this.shardTemplate = shardTemplate;
+        this.transactionExportWriter = new TransactionExportWriter(objectMapper);
+    }
+
+    /**
+     * 계좌 / 사용자로 거르면 그 샤드 하나, 기간으로만 거르면 모든 샤드를 차례로 읽는다.
+     * (샤드마다 읽기 전용 트랜잭션 하나, CSV 헤더는 처음 한 번만)
+     */
+    public long export(TransactionExport.Request request, OutputStream outputStream) throws IOException {
+        long count = 0;
+        boolean header = true;
+        for (int shard : shardsOf(request)) {
+            count += exportShard(shard, request, outputStream, header);
+            header = false;
+        }
+        log.info("Exported {} transactions as {}", count, request.getFormat());
+        return count;
+    }
+
+    private long exportShard(
+            int shard, TransactionExport.Request request, OutputStream outputStream, boolean header
+    ) throws IOException {
+        try {
+            return shardTemplate.readOnShard(shard, () -> {
+                try (Stream<TransactionExportRow> rows = transactionRepository.streamForExport(
+                        request.getAccountNumber(),
+                        request.getUserId(),
+                        request.getFrom(),
+                        request.getTo(),
+                        fetchSize
+                )) {
+                    return transactionExportWriter.write(rows, request.getFormat(), outputStream, header);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int[] shardsOf(TransactionExport.Request request) {
+        if (request.getAccountNumber() != null) {
+            return new int[]{shardRouter.shardOfAccount(request.getAccountNumber())};
+        }
+        if (request.getUserId() != null) {
+            return new int[]{shardRouter.shardOfUser(request.getUserId())};
+        }
+        return shardRouter.allShards();
+    }
+}
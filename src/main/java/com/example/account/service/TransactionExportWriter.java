@@ -0,0 +1,114 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.type.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 거래 export 를 NDJSON / CSV 로 한 행씩 기록
+ * 행을 모아두지 않고 바로 쓰기 때문에 메모리 사용량은 버퍼 크기로 고정된다.
+ */
+public class TransactionExportWriter {
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final String CSV_HEADER =
+            "accountNumber,transactionId,transactionType,transactionResult,amount,balanceSnapshot,transactedAt\n";
+
+    private final ObjectWriter objectWriter;
+
+    public TransactionExportWriter(ObjectMapper objectMapper) {
+        this.objectWriter = objectMapper.writerFor(TransactionExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public long write(
+            Stream<TransactionExportRow> rows,
+            ExportFormat format,
+            OutputStream outputStream
+    ) throws IOException {
+        return write(rows, format, outputStream, true);
+    }
+
+    /**
+     * @param header CSV 헤더를 쓸지 (여러 번 나누어 이어 쓸 때 첫 번째만 true)
+     */
+    public long write(
+            Stream<TransactionExportRow> rows,
+            ExportFormat format,
+            OutputStream outputStream,
+            boolean header
+    ) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        long count = format == ExportFormat.CSV
+                ? writeCsv(rows.iterator(), writer, header)
+                : writeNdjson(rows.iterator(), writer);
+
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<TransactionExportRow> rows, Writer writer) throws IOException {
+        JsonGenerator generator = objectWriter.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+
+        long count = 0;
+        while (rows.hasNext()) {
+            objectWriter.writeValue(generator, rows.next());
+            generator.writeRaw('\n');
+
+            if (++count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+
+        generator.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<TransactionExportRow> rows, Writer writer, boolean header) throws IOException {
+        if (header) {
+            writer.write(CSV_HEADER);
+        }
+
+        long count = 0;
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            writeCsvValue(writer, row.getAccountNumber(), ',');
+            writeCsvValue(writer, row.getTransactionId(), ',');
+            writeCsvValue(writer, row.getTransactionType(), ',');
+            writeCsvValue(writer, row.getTransactionResult(), ',');
+            writeCsvValue(writer, row.getAmount(), ',');
+            writeCsvValue(writer, row.getBalanceSnapshot(), ',');
+            writeCsvValue(writer, row.getTransactedAt(), '\n');
+
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+
+        return count;
+    }
+
+    private static void writeCsvValue(Writer writer, Object value, char terminator) throws IOException {
+        if (value != null) {
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write(terminator);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.account.service;
+
+import java.util.UUID;
+
+/**
+ * 거래 아이디 생성
+ * UUID 를 하이픈 없는 32자리 소문자 hex 문자열로 만든다.
+ * (UUID.toString().replace("-", "") 와 같은 결과를 중간 문자열 없이 만든다)
+ */
+public final class TransactionIdGenerator {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TransactionIdGenerator() {
+    }
+
+    public static String generate() {
+        return format(UUID.randomUUID());
+    }
+
+    /**
+     * 앞 2자리를 샤드 번호(hex)로 바꾼 아이디 (길이와 나머지 무작위 비트는 그대로)
+     */
+    public static String generate(int shard) {
+        char[] chars = format(UUID.randomUUID()).toCharArray();
+        chars[0] = HEX[(shard >>> 4) & 0xF];
+        chars[1] = HEX[shard & 0xF];
+        return new String(chars);
+    }
+
+    static String format(UUID uuid) {
+        char[] chars = new char[32];
+        writeHex(uuid.getMostSignificantBits(), chars, 0);
+        writeHex(uuid.getLeastSignificantBits(), chars, 16);
+        return new String(chars);
+    }
+
+    private static void writeHex(long value, char[] chars, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
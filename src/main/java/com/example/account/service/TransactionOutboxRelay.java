@@ -0,0 +1,100 @@
+package com.example.account.service;
+
+import com.example.account.domain.BaseEntity;
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.sharding.ShardContext;
+import com.example.account.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RLock;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 아웃박스 릴레이
+ * 발행되지 않은 아웃박스를 batch-size 단위로 읽어 하나의 Redis 파이프라인으로 Stream 에 추가하고,
+ * 발행이 끝난 뒤에 publishedAt 을 기록한다. (at-least-once: 기록 전에 죽으면 다시 발행된다)
+ * 가득 찬 배치는 바로 이어서 발행하고, 덜 찬 배치는 최대 linger-ms 만큼 기다렸다가 발행한다.
+ * 샤딩을 쓰면 샤드마다 차례로 발행한다.
+ * 모든 노드에서 실행되므로 샤드마다 Redis lock(lock-key:샤드 번호)을 잡은 노드 하나만 발행하고,
+ * 나머지 노드는 그 샤드를 건너뛴다. (lock 은 watchdog 으로 연장하며, 노드가 죽으면 다른 노드가 이어받는다)
+ * 그래도 다시 발행될 수 있으므로 Stream 항목의 outboxId 로 소비자가 중복을 거른다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionOutboxRelay {
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final RedissonClient redissonClient;
+    private final ShardRouter shardRouter;
+
+    @Value("${outbox.relay.stream-key}")
+    private String streamKey;
+
+    @Value("${outbox.relay.batch-size}")
+    private int batchSize;
+
+    @Value("${outbox.relay.lock-key}")
+    private String lockKey;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.linger-ms}")
+    public void relay() {
+        for (int shard : shardRouter.allShards()) {
+            RLock lock = redissonClient.getLock(lockKey + ":" + shard);
+            if (!lock.tryLock()) {
+                // 다른 노드가 이 샤드를 발행 중
+                continue;
+            }
+            try {
+                ShardContext.runOn(shard, () -> {
+                    int published;
+                    do {
+                        published = publishBatch();
+                    } while (published == batchSize);
+                });
+            } catch (Exception e) {
+                log.error("Outbox relay failed for shard {}", shard, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int publishBatch() {
+        List<TransactionOutbox> outboxes = transactionOutboxRepository
+                .findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (outboxes.isEmpty()) {
+            return 0;
+        }
+
+        RBatch batch = redissonClient.createBatch();
+        RStreamAsync<String, String> stream = batch.getStream(streamKey, StringCodec.INSTANCE);
+        for (TransactionOutbox outbox : outboxes) {
+            stream.addAsync(StreamAddArgs.entries(outbox.toStreamEntry()));
+        }
+        batch.execute();
+
+        // checkpoint
+        transactionOutboxRepository.markPublished(
+                outboxes.stream()
+                        .map(BaseEntity::getId)
+                        .collect(Collectors.toList()),
+                LocalDateTime.now()
+        );
+        log.debug("Published {} outbox entries to {}", outboxes.size(), streamKey);
+
+        return outboxes.size();
+    }
+}
@@ -1,33 +1,58 @@
 package com.example.account.service;
 
+import com.example.account.aop.ShardKey;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.dto.BalanceChangedEvent;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.QueryTransactions;
+import com.example.account.dto.TransactionHistory;
+import com.example.account.dto.TransactionHistoryCursor;
+import com.example.account.dto.TransactionSummary;
 import com.example.account.dto.TransactionDto;
 import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionOutboxRepository;
 import com.example.account.repository.TransactionRepository;
+import com.example.account.sharding.ShardRouter;
+import com.example.account.sharding.ShardTemplate;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.TreeMap;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    private static final int QUERY_CHUNK_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AccountMetrics accountMetrics;
+    private final ShardRouter shardRouter;
+    private final ShardTemplate shardTemplate;
 
     /**
      * 사용자가 없는 경우, 계좌가 없는 경우, 사용자 아이디와 계좌 소유주가 다른 경우,
@@ -35,16 +60,18 @@ public class TransactionService {
      * 거래 금액이 너무 작거나 큰 경우 실패 응답
      */
     @Transactional
-    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+    public TransactionDto useBalance(Long userId, @ShardKey String accountNumber, Long amount) {
         AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.USER_NOT_FOUND));
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         validateUseBalance(accountUser, account, amount);
 
         account.useBalance(amount);
+        applicationEventPublisher.publishEvent(BalanceChangedEvent.fromEntity(account));
+        accountMetrics.recordAmount(TransactionType.USE, amount);
 
         return TransactionDto.fromEntity(
                 saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, amount, account)
@@ -52,9 +79,9 @@ public class TransactionService {
     }
 
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+    public void saveFailedUseTransaction(@ShardKey String accountNumber, Long amount) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         saveAndGetTransaction(TransactionType.USE, TransactionResultType.F, amount, account);
     }
@@ -65,28 +92,33 @@ public class TransactionService {
             Long amount,
             Account account
     ) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        Transaction transaction = Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(shardRouter.newTransactionId())
+                .transactedAt(LocalDateTime.now())
+                .build();
+
+        Transaction savedTransaction = transactionRepository.save(transaction);
+
+        // 같은 DB 트랜잭션에서 아웃박스에 기록 -> TransactionOutboxRelay 가 발행
+        transactionOutboxRepository.save(TransactionOutbox.from(transaction));
+
+        return savedTransaction;
     }
 
     private void validateUseBalance(AccountUser accountUser, Account account, Long amount) {
         if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+            throw AccountException.of(ErrorCode.USER_ACCOUNT_UN_MATCH);
         }
         if (account.getAccountStatus() != AccountStatus.IN_USE) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            throw AccountException.of(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
         if (account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            throw AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
     }
 
@@ -98,16 +130,18 @@ public class TransactionService {
      * 실패 응답
      */
     @Transactional
-    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+    public TransactionDto cancelBalance(String transactionId, @ShardKey String accountNumber, Long amount) {
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.TRANSACTION_NOT_FOUND));
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         validateCancelBalance(transaction, account, amount);
 
         account.cancleBalance(amount);
+        applicationEventPublisher.publishEvent(BalanceChangedEvent.fromEntity(account));
+        accountMetrics.recordAmount(TransactionType.CANCEL, amount);
 
         return TransactionDto.fromEntity(
                 saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, amount, account)
@@ -116,30 +150,114 @@ public class TransactionService {
 
     private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
         if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+            throw AccountException.of(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
         }
 
         if (!Objects.equals(transaction.getAmount(), amount)) {
-            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+            throw AccountException.of(ErrorCode.CANCEL_MUST_FULLY);
         }
 
         if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
-            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+            throw AccountException.of(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
         }
     }
 
     @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+    public void saveFailedCancelTransaction(@ShardKey String accountNumber, Long amount) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.F, amount, account);
     }
 
-    @Transactional
-    public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
-                transactionRepository.findByTransactionId(transactionId)
-                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+    /**
+     * 거래와 계좌번호만 한 번의 join 으로 읽는 projection 조회
+     */
+    @Transactional(readOnly = true)
+    public TransactionDto queryTransaction(@ShardKey(ShardKey.Type.TRANSACTION_ID) String transactionId) {
+        return transactionRepository.findDtoByTransactionId(transactionId)
+                .orElseThrow(() -> AccountException.of(ErrorCode.TRANSACTION_NOT_FOUND));
+    }
+
+    /**
+     * 여러 거래를 한 번에 확인
+     * 중복을 제거한 아이디를 샤드별로 나누어 QUERY_CHUNK_SIZE 개씩 IN 쿼리로 조회하고 (샤드끼리는 병렬),
+     * 요청 순서대로 응답한다.
+     */
+    public QueryTransactions.Response queryTransactions(List<String> transactionIds) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(transactionIds));
+
+        Map<Integer, List<String>> idsByShard = new TreeMap<>();
+        for (String transactionId : distinctIds) {
+            idsByShard.computeIfAbsent(shardRouter.shardOfTransactionId(transactionId), shard -> new ArrayList<>())
+                    .add(transactionId);
+        }
+
+        Map<String, TransactionDto> found = new HashMap<>();
+        shardTemplate.readOnShards(
+                idsByShard.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                shard -> findTransactionDtos(idsByShard.get(shard))
+        ).values().forEach(transactionDtos -> transactionDtos
+                .forEach(transactionDto -> found.put(transactionDto.getTransactionId(), transactionDto)));
+
+        List<QueryTransactionResponse> transactions = new ArrayList<>();
+        List<String> notFoundTransactionIds = new ArrayList<>();
+        for (String transactionId : distinctIds) {
+            TransactionDto transactionDto = found.get(transactionId);
+            if (transactionDto == null) {
+                notFoundTransactionIds.add(transactionId);
+            } else {
+                transactions.add(QueryTransactionResponse.from(transactionDto));
+            }
+        }
+
+        return QueryTransactions.Response.builder()
+                .transactions(transactions)
+                .notFoundTransactionIds(notFoundTransactionIds)
+                .build();
+    }
+
+    private List<TransactionDto> findTransactionDtos(List<String> transactionIds) {
+        List<TransactionDto> transactionDtos = new ArrayList<>();
+        for (int from = 0; from < transactionIds.size(); from += QUERY_CHUNK_SIZE) {
+            transactionDtos.addAll(transactionRepository.findDtoByTransactionIdIn(transactionIds.subList(
+                    from, Math.min(from + QUERY_CHUNK_SIZE, transactionIds.size()))));
+        }
+        return transactionDtos;
+    }
+
+    /**
+     * 계좌의 거래 내역을 최신순으로 조회 (keyset 페이지네이션)
+     * size + 1 개를 읽어서 다음 페이지가 있는지 판단한다.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistory.Response getTransactionHistory(
+            @ShardKey String accountNumber, TransactionHistory.Request request
+    ) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        int size = request.getSize();
+        List<TransactionSummary> transactions = transactionRepository.findHistory(
+                account.getId(),
+                TransactionHistoryCursor.decode(request.getCursor()),
+                request.getTransactionType(),
+                request.getTransactionResult(),
+                request.getFrom(),
+                request.getTo(),
+                size + 1
+        );
+
+        if (transactions.size() <= size) {
+            return TransactionHistory.Response.builder()
+                    .transactions(transactions)
+                    .build();
+        }
+
+        List<TransactionSummary> page = transactions.subList(0, size);
+        return TransactionHistory.Response.builder()
+                .transactions(page)
+                .nextCursor(TransactionHistoryCursor.from(page.get(size - 1)).encode())
+                .build();
     }
 }
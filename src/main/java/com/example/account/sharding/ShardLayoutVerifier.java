@@ -0,0 +1,44 @@
+package com.example.account.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 샤드마다 처음 쓸 때의 샤드 번호와 샤드 수를 기록해 두고(shard_layout), 설정이 달라졌으면 시작하지 않는다.
+ * 계좌는 계좌번호 % 샤드 수 로 샤드를 고르므로, sharding.urls 의 개수나 순서가 바뀌면
+ * 기존 계좌 대부분이 다른 샤드에서 찾아진다. (없는 계좌로 보이거나 새 계좌가 잘못된 샤드에 생긴다)
+ * 샤드를 늘리려면 데이터를 새 규칙에 맞게 옮긴 뒤 각 샤드의 shard_layout 을 고친다. (ShardRouter 참고)
+ */
+@Slf4j
+public class ShardLayoutVerifier {
+    private static final String CREATE_TABLE =
+            "create table if not exists shard_layout (shard_index int not null, shard_count int not null)";
+
+    public void verify(ShardRouter shardRouter, DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        int shardCount = shardRouter.getShardCount();
+        for (int shard : shardRouter.allShards()) {
+            ShardContext.runOn(shard, () -> {
+                jdbcTemplate.execute(CREATE_TABLE);
+                List<int[]> layouts = jdbcTemplate.query("select shard_index, shard_count from shard_layout",
+                        (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2)});
+                if (layouts.isEmpty()) {
+                    jdbcTemplate.update("insert into shard_layout(shard_index, shard_count) values (?, ?)",
+                            shard, shardCount);
+                    log.info("Recorded layout for shard {} of {}", shard, shardCount);
+                    return;
+                }
+                int[] layout = layouts.get(0);
+                if (layout[0] != shard || layout[1] != shardCount) {
+                    throw new IllegalStateException(String.format(
+                            "sharding.urls[%d] holds data of shard %d of %d, but %d shards are configured"
+                                    + " (move the data and update shard_layout before changing sharding.urls)",
+                            shard, layout[0], layout[1], shardCount));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.account.sharding;
+
+import com.example.account.service.TransactionIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.IntStream;
+
+/**
+ * 샤드 선택 규칙
+ * 1. 계좌와 그 거래는 계좌번호 % 샤드 수 번째 샤드에 있다.
+ * 2. 계좌번호는 사용자의 홈 샤드(userId % 샤드 수)에 맞춰 발급하므로, 한 사용자의 계좌는 모두 같은 샤드에 있다.
+ *    (계좌 수 제한 카운터와 사용자별 계좌 목록을 샤드 하나에서 처리할 수 있다)
+ * 3. 거래 아이디의 앞 2자리(hex)는 거래가 저장된 샤드 번호다.
+ * 샤딩을 쓰지 않으면 샤드는 0번 하나뿐이고, 계좌번호 / 거래 아이디 규칙도 기존과 같다.
+ * 샤드 수를 바꾸면 거의 모든 계좌의 샤드가 바뀐다. 샤드를 늘리려면
+ * 1. 서비스를 멈추고 계좌 / 거래를 새 샤드 수 기준으로 옮긴다. (거래는 계좌를 따라간다, 거래 아이디의 샤드 번호는 샤드 수로 나눈 나머지로 읽는다)
+ * 2. 각 샤드의 shard_layout 을 새 번호 / 샤드 수로 고친 뒤 sharding.urls 를 바꿔 시작한다.
+ * 옮기지 않고 바꾸면 ShardLayoutVerifier 가 시작을 막는다.
+ */
+@Component
+public class ShardRouter {
+    static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+    static final int MAX_SHARDS = 256;
+
+    private final int shardCount;
+
+    public ShardRouter(
+            @Value("${sharding.enabled}") boolean enabled,
+            @Value("${sharding.urls}") String[] urls
+    ) {
+        this.shardCount = enabled ? urls.length : 1;
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("sharding.urls must have 1 to " + MAX_SHARDS + " entries");
+        }
+    }
+
+    public static ShardRouter single() {
+        return new ShardRouter(false, new String[0]);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int[] allShards() {
+        return IntStream.range(0, shardCount).toArray();
+    }
+
+    public int shardOfAccount(String accountNumber) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        try {
+            return (int) Math.floorMod(Long.parseLong(accountNumber), (long) shardCount);
+        } catch (NumberFormatException e) {
+            // 숫자가 아닌 계좌번호는 어느 샤드에도 없다.
+            return Math.floorMod(accountNumber.hashCode(), shardCount);
+        }
+    }
+
+    public int shardOfUser(Long userId) {
+        return shardCount == 1 ? 0 : (int) Math.floorMod(userId, (long) shardCount);
+    }
+
+    public int shardOfTransactionId(String transactionId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        if (transactionId.length() < 2) {
+            return 0;
+        }
+        int shard = Character.digit(transactionId.charAt(0), 16) * 16
+                + Character.digit(transactionId.charAt(1), 16);
+        return shard < 0 ? 0 : shard % shardCount;
+    }
+
+    /**
+     * 현재 샤드에 저장될 거래의 아이디
+     */
+    public String newTransactionId() {
+        return shardCount == 1
+                ? TransactionIdGenerator.generate()
+                : TransactionIdGenerator.generate(ShardContext.current());
+    }
+
+    /**
+     * 현재 샤드의 마지막 계좌번호 다음 번호 (계좌번호 % 샤드 수 가 현재 샤드가 되도록 샤드 수만큼 건너뛴다)
+     */
+    public String nextAccountNumber(String lastAccountNumber) {
+        if (lastAccountNumber != null) {
+            return String.valueOf(Long.parseLong(lastAccountNumber) + shardCount);
+        }
+        long shard = ShardContext.current();
+        return String.valueOf(FIRST_ACCOUNT_NUMBER + Math.floorMod(shard - FIRST_ACCOUNT_NUMBER, (long) shardCount));
+    }
+}
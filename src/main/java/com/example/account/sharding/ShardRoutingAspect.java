@@ -0,0 +1,104 @@
+package com.example.account.sharding;
+
+import com.example.account.aop.ShardKey;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서비스 메서드의 @ShardKey 파라미터로 샤드를 골라 ShardContext 에 두고 실행한다.
+ * 트랜잭션(@Transactional)보다 바깥에서 실행되어야 트랜잭션이 그 샤드의 커넥션을 얻는다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardRoutingAspect {
+    private static final ShardKeyParameter NONE = new ShardKeyParameter(-1, null);
+
+    private final ShardRouter shardRouter;
+
+    private final Map<Method, ShardKeyParameter> shardKeyParameters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.example.account.service.*Service.*(..))")
+    public Object aroundService(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        ShardKeyParameter parameter = shardKeyParameters.computeIfAbsent(method, ShardRoutingAspect::findShardKey);
+        if (parameter == NONE) {
+            return pjp.proceed();
+        }
+
+        Object key = pjp.getArgs()[parameter.index];
+        if (key == null) {
+            return pjp.proceed();
+        }
+
+        int shard = resolve(parameter.type, key);
+        try {
+            return ShardContext.callOn(shard, () -> proceed(pjp));
+        } catch (ProceedFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    private int resolve(ShardKey.Type type, Object key) {
+        switch (type) {
+            case USER_ID:
+                return shardRouter.shardOfUser((Long) key);
+            case TRANSACTION_ID:
+                return shardRouter.shardOfTransactionId((String) key);
+            default:
+                return shardRouter.shardOfAccount((String) key);
+        }
+    }
+
+    private static Object proceed(ProceedingJoinPoint pjp) {
+        try {
+            return pjp.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ProceedFailure(e);
+        }
+    }
+
+    private static ShardKeyParameter findShardKey(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return new ShardKeyParameter(i, ((ShardKey) annotation).value());
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private static class ShardKeyParameter {
+        private final int index;
+        private final ShardKey.Type type;
+
+        ShardKeyParameter(int index, ShardKey.Type type) {
+            this.index = index;
+            this.type = type;
+        }
+    }
+
+    private static class ProceedFailure extends RuntimeException {
+        ProceedFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.account.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.schema.TargetType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.EnumSet;
+
+/**
+ * 0번이 아닌 샤드의 스키마와 기준 데이터(data.sql 의 사용자)를 만든다.
+ * Spring Boot / Hibernate 의 스키마 생성과 data.sql 은 기본 샤드(0번)에만 실행되므로,
+ * Hibernate 가 만든 매핑 정보(Metadata)로 나머지 샤드에 같은 스키마를 만든다.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements Integrator {
+    private volatile Metadata metadata;
+
+    @Override
+    public void integrate(
+            Metadata metadata,
+            SessionFactoryImplementor sessionFactory,
+            SessionFactoryServiceRegistry serviceRegistry
+    ) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public void disintegrate(
+            SessionFactoryImplementor sessionFactory,
+            SessionFactoryServiceRegistry serviceRegistry
+    ) {
+    }
+
+    public void initialize(ShardRouter shardRouter, DataSource dataSource) {
+        if (metadata == null) {
+            throw new IllegalStateException("Hibernate metadata is not available yet");
+        }
+
+        ResourceDatabasePopulator referenceData = new ResourceDatabasePopulator(new ClassPathResource("data.sql"));
+        for (int shard : shardRouter.allShards()) {
+            if (shard == 0) {
+                continue;
+            }
+            ShardContext.runOn(shard, () -> {
+                new SchemaExport()
+                        .setHaltOnError(true)
+                        .createOnly(EnumSet.of(TargetType.DATABASE), metadata);
+                referenceData.execute(dataSource);
+            });
+            log.info("Initialized schema for shard {}", shard);
+        }
+    }
+}
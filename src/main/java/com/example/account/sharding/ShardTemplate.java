@@ -0,0 +1,90 @@
+package com.example.account.sharding;
+
+import io.opentelemetry.context.Context;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 샤드를 지정해서 읽기 전용 트랜잭션을 실행한다.
+ * 여러 샤드에 보내는 조회(scatter-gather)는 샤드마다 병렬로 실행하고 결과를 샤드 순서대로 모은다.
+ */
+@Component
+public class ShardTemplate {
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ExecutorService executor;
+
+    public ShardTemplate(ShardRouter shardRouter, PlatformTransactionManager transactionManager) {
+        this.shardRouter = shardRouter;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.executor = shardRouter.getShardCount() > 1
+                ? Context.taskWrapping(Executors.newFixedThreadPool(shardRouter.getShardCount()))
+                : null;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public <T> T readOnShard(int shard, Supplier<T> work) {
+        return ShardContext.callOn(shard, () -> readOnlyTemplate.execute(status -> work.get()));
+    }
+
+    /**
+     * 주어진 샤드들에서 병렬로 조회 (샤드가 하나면 현재 스레드에서 실행)
+     */
+    public <T> Map<Integer, T> readOnShards(int[] shards, IntFunction<T> work) {
+        Map<Integer, T> results = new LinkedHashMap<>();
+        if (shards.length == 1 || executor == null) {
+            for (int shard : shards) {
+                results.put(shard, readOnShard(shard, () -> work.apply(shard)));
+            }
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<>(shards.length);
+        for (int shard : shards) {
+            futures.add(executor.submit(() -> readOnShard(shard, () -> work.apply(shard))));
+        }
+        for (int i = 0; i < shards.length; i++) {
+            results.put(shards[i], await(futures.get(i)));
+        }
+        return results;
+    }
+
+    public <T> Map<Integer, T> readOnAllShards(IntFunction<T> work) {
+        return readOnShards(shardRouter.allShards(), work);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard query", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
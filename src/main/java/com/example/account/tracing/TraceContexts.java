@@ -0,0 +1,74 @@
+package com.example.account.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapSetter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * W3C traceparent 로 trace context 를 넘기고 이어받는다.
+ * (HTTP 요청 헤더, 아웃박스 / Redis Stream 항목, Redis topic 이벤트)
+ */
+public final class TraceContexts {
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final TextMapSetter<Map<String, String>> MAP_SETTER = Map::put;
+
+    private static final TextMapGetter<Map<String, String>> MAP_GETTER = new TextMapGetter<Map<String, String>>() {
+        @Override
+        public Iterable<String> keys(Map<String, String> carrier) {
+            return carrier.keySet();
+        }
+
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+            return carrier == null ? null : carrier.get(key);
+        }
+    };
+
+    private static final TextMapGetter<HttpServletRequest> REQUEST_GETTER = new TextMapGetter<HttpServletRequest>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest carrier) {
+            return Collections.list(carrier.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest carrier, String key) {
+            return carrier == null ? null : carrier.getHeader(key);
+        }
+    };
+
+    private TraceContexts() {
+    }
+
+    /**
+     * 진행 중인 span 이 없으면 (tracing 이 꺼져 있으면) null
+     */
+    public static String currentTraceparent() {
+        if (!Span.current().getSpanContext().isValid()) {
+            return null;
+        }
+        Map<String, String> carrier = new HashMap<>();
+        W3CTraceContextPropagator.getInstance().inject(Context.current(), carrier, MAP_SETTER);
+        return carrier.get(TRACEPARENT);
+    }
+
+    public static Context extract(String traceparent) {
+        if (traceparent == null) {
+            return Context.current();
+        }
+        return W3CTraceContextPropagator.getInstance()
+                .extract(Context.current(), Collections.singletonMap(TRACEPARENT, traceparent), MAP_GETTER);
+    }
+
+    public static Context extract(HttpServletRequest request) {
+        return W3CTraceContextPropagator.getInstance()
+                .extract(Context.current(), request, REQUEST_GETTER);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.account.tracing;
+
+import com.example.account.exception.AccountException;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청 경로의 span
+ * 컨트롤러(SERVER, 요청 헤더의 traceparent 를 이어받음) -> lock 취득 / 해제 -> 서비스 -> 저장소(CLIENT)
+ * 가장 바깥에서 감싸도록 우선순위를 가장 높게 두어, 컨트롤러 span 안에 LockAopAspect 의 lock 대기가,
+ * 서비스 span 안에 DB 트랜잭션 커밋이 들어가게 한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TracingAspect {
+    private static final String REPOSITORY_PACKAGE = "com.example.account.repository.";
+
+    private final Tracer tracer;
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object aroundController(ProceedingJoinPoint pjp) throws Throwable {
+        Span span = tracer.spanBuilder(spanName(pjp))
+                .setParent(parentFromRequest())
+                .setSpanKind(SpanKind.SERVER)
+                .startSpan();
+        return trace(span, pjp);
+    }
+
+    @Around("execution(* com.example.account.service.LockService.*(String)) && args(accountNumber)")
+    public Object aroundLock(ProceedingJoinPoint pjp, String accountNumber) throws Throwable {
+        Span span = tracer.spanBuilder(spanName(pjp))
+                .setAttribute("account.number", accountNumber)
+                .startSpan();
+        return trace(span, pjp);
+    }
+
+    @Around("execution(public * com.example.account.service.*Service.*(..))"
+            + " && !within(com.example.account.service.LockService)")
+    public Object aroundService(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(tracer.spanBuilder(spanName(pjp)).startSpan(), pjp);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object aroundRepository(ProceedingJoinPoint pjp) throws Throwable {
+        Span span = tracer.spanBuilder(repositoryName(pjp.getThis()) + "." + pjp.getSignature().getName())
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.system", "h2")
+                .startSpan();
+        return trace(span, pjp);
+    }
+
+    private static Object trace(Span span, ProceedingJoinPoint pjp) throws Throwable {
+        try (Scope ignored = span.makeCurrent()) {
+            return pjp.proceed();
+        } catch (AccountException e) {
+            span.setAttribute("account.error_code", e.getErrorCode().name());
+            span.setStatus(StatusCode.ERROR, e.getErrorCode().name());
+            throw e;
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static String spanName(ProceedingJoinPoint pjp) {
+        return pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName();
+    }
+
+    private static Context parentFromRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return TraceContexts.extract(((ServletRequestAttributes) attributes).getRequest());
+        }
+        return Context.current();
+    }
+
+    /**
+     * 저장소 프록시가 구현한 이 프로젝트의 저장소 인터페이스 이름 (예: TransactionRepository)
+     */
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
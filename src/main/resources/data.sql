@@ -4,3 +4,9 @@ insert into account_user(id, name, created_at, updated_at)
 values (2, 'Lupi', now(), now());
 insert into account_user(id, name, created_at, updated_at)
 values (3, 'Eddie', now(), now());
+insert into account_user_counter(account_user_id, active_account_count)
+values (1, 0);
+insert into account_user_counter(account_user_id, active_account_count)
+values (2, 0);
+insert into account_user_counter(account_user_id, active_account_count)
+values (3, 0);
@@ -0,0 +1,97 @@
+package com.example.account;
+
+import com.example.account.metrics.RequestProfile;
+import com.example.account.metrics.RequestProfileFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 엔드포인트별 SQL 실행 횟수 상한 (N+1 회귀 방지)
+ * 쿼리가 늘어나는 변경이면 이 테스트가 실패하므로, 의도한 변경일 때만 상한을 올린다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6408",
+        "spring.datasource.url=jdbc:h2:mem:query-count-test",
+        "request-profile.jdbc-enabled=true"
+})
+class QueryCountTest {
+    // 사용자, 계좌 수, 마지막 계좌번호 조회 + 시퀀스 + insert
+    private static final int CREATE_ACCOUNT_STATEMENTS = 6;
+    // 사용자, 계좌 조회 + 시퀀스 2 + 거래 / 아웃박스 insert + 계좌 update
+    private static final int USE_BALANCE_STATEMENTS = 8;
+    // 거래 + 계좌번호 projection (join 1회)
+    private static final int QUERY_TRANSACTION_STATEMENTS = 1;
+    // 사용자 존재 확인 + 계좌 projection
+    private static final int GET_ACCOUNTS_STATEMENTS = 2;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private RequestProfileFilter requestProfileFilter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(requestProfileFilter)
+                .build();
+    }
+
+    @Test
+    void statementsPerEndpoint() throws Exception {
+        //given
+        MvcResult createAccount = mockMvc.perform(post("/account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":1,\"initBalance\":100000}"))
+                .andReturn();
+        String accountNumber = body(createAccount).get("accountNumber").asText();
+
+        //when
+        MvcResult useBalance = mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":1,\"accountNumber\":\"" + accountNumber + "\",\"amount\":1000}"))
+                .andReturn();
+        String transactionId = body(useBalance).get("transactionId").asText();
+
+        MvcResult queryTransaction = mockMvc.perform(get("/transaction/" + transactionId))
+                .andReturn();
+
+        MvcResult getAccounts = mockMvc.perform(get("/account").param("user_id", "1"))
+                .andReturn();
+
+        //then
+        assertStatementsAtMost(createAccount, CREATE_ACCOUNT_STATEMENTS);
+        assertStatementsAtMost(useBalance, USE_BALANCE_STATEMENTS);
+        assertStatementsAtMost(queryTransaction, QUERY_TRANSACTION_STATEMENTS);
+        assertStatementsAtMost(getAccounts, GET_ACCOUNTS_STATEMENTS);
+    }
+
+    private JsonNode body(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static void assertStatementsAtMost(MvcResult result, int expected) {
+        RequestProfile profile = (RequestProfile) result.getRequest().getAttribute(RequestProfile.ATTRIBUTE);
+        assertTrue(profile.getStatements() <= expected,
+                result.getRequest().getRequestURI() + " executed " + profile.getStatements()
+                        + " statements (expected at most " + expected + ")");
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.BalanceStreamStats;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
 import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.service.AccountService;
+import com.example.account.service.BalanceStreamService;
 import com.example.account.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -13,16 +16,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountController.class)
@@ -30,6 +36,11 @@ class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private BalanceStreamService balanceStreamService;
+
+    @MockBean
+    private AccountMetrics accountMetrics;
 
     @Autowired
     private MockMvc mockMvc;
@@ -138,4 +149,36 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.errorCode").value("ACCOUNT_NOT_FOUND"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamBalancesSuccess() throws Exception {
+        //given
+        given(balanceStreamService.subscribe(anyLong(), any()))
+                .willReturn(new SseEmitter());
+        //when
+        //then
+        mockMvc.perform(get("/account/stream?user_id=1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void getBalanceStreamStatsSuccess() throws Exception {
+        //given
+        given(balanceStreamService.getStats())
+                .willReturn(BalanceStreamStats.builder()
+                        .connections(3)
+                        .deliveredEvents(100L)
+                        .droppedEvents(2L)
+                        .build());
+        //when
+        //then
+        mockMvc.perform(get("/account/stream/stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.connections").value(3))
+                .andExpect(jsonPath("$.deliveredEvents").value(100L))
+                .andExpect(jsonPath("$.droppedEvents").value(2L));
+    }
+}
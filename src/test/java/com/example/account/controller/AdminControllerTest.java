@@ -0,0 +1,82 @@
+package com.example.account.controller;
+
+import com.example.account.dto.HeldLock;
+import com.example.account.dto.HotAccount;
+import com.example.account.lock.LockReaper;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.metrics.HotAccountProfiler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminController.class)
+class AdminControllerTest {
+    @MockBean
+    private HotAccountProfiler hotAccountProfiler;
+
+    @MockBean
+    private AccountMetrics accountMetrics;
+
+    @MockBean
+    private LockReaper lockReaper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void successGetHotAccounts() throws Exception {
+        //given
+        given(hotAccountProfiler.getHotAccounts(5))
+                .willReturn(List.of(HotAccount.builder()
+                        .accountNumber("1000000000")
+                        .attempts(1200L)
+                        .failures(30L)
+                        .waitP50Millis(1.023)
+                        .waitP99Millis(524.287)
+                        .waitMaxMillis(1001.2)
+                        .build()));
+        //when
+        //then
+        mockMvc.perform(get("/admin/hot-accounts?limit=5"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$[0].attempts").value(1200))
+                .andExpect(jsonPath("$[0].failures").value(30))
+                .andExpect(jsonPath("$[0].waitP99Millis").value(524.287));
+    }
+
+    @Test
+    void successGetHeldLocks() throws Exception {
+        //given
+        given(lockReaper.getHeldLocks())
+                .willReturn(List.of(HeldLock.builder()
+                        .accountNumber("1000000000")
+                        .nodeId("node-1")
+                        .threadName("http-nio-8080-exec-1")
+                        .acquiredAt(1_700_000_000_000L)
+                        .ageMillis(12_000L)
+                        .leaseMillis(15_000L)
+                        .nodeAlive(false)
+                        .build()));
+        //when
+        //then
+        mockMvc.perform(get("/admin/locks"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$[0].nodeId").value("node-1"))
+                .andExpect(jsonPath("$[0].ageMillis").value(12000))
+                .andExpect(jsonPath("$[0].nodeAlive").value(false));
+    }
+}
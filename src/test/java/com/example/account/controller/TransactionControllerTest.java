@@ -2,8 +2,14 @@ package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.QueryTransactions;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistory;
+import com.example.account.dto.TransactionSummary;
 import com.example.account.dto.UseBalance;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
@@ -14,17 +20,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -33,6 +51,12 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private AccountMetrics accountMetrics;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -117,4 +141,111 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionId").value("transactionIdForQueryTransaction"))
                 .andExpect(jsonPath("$.amount").value(54321L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void successQueryTransactions() throws Exception {
+        //given
+        given(transactionService.queryTransactions(anyList()))
+                .willReturn(QueryTransactions.Response.builder()
+                        .transactions(List.of(QueryTransactionResponse.builder()
+                                .accountNumber("1000000000")
+                                .transactionType(TransactionType.USE)
+                                .transactionResult(TransactionResultType.S)
+                                .transactionId("transactionId1")
+                                .amount(1000L)
+                                .transactedAt(LocalDateTime.now())
+                                .build()))
+                        .notFoundTransactionIds(List.of("transactionId2"))
+                        .build());
+        //when
+        //then
+        mockMvc.perform(post("/transaction/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new QueryTransactions.Request(List.of("transactionId1", "transactionId2"))
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId1"))
+                .andExpect(jsonPath("$.transactions[0].accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.notFoundTransactionIds[0]").value("transactionId2"));
+    }
+
+    @Test
+    void successGetTransactionHistory() throws Exception {
+        //given
+        given(transactionService.getTransactionHistory(anyString(), any()))
+                .willReturn(TransactionHistory.Response.builder()
+                        .transactions(List.of(
+                                TransactionSummary.builder()
+                                        .id(2L)
+                                        .transactionId("transactionId2")
+                                        .transactionType(TransactionType.USE)
+                                        .transactionResult(TransactionResultType.S)
+                                        .amount(1000L)
+                                        .transactedAt(LocalDateTime.now())
+                                        .build(),
+                                TransactionSummary.builder()
+                                        .id(1L)
+                                        .transactionId("transactionId1")
+                                        .transactionType(TransactionType.CANCEL)
+                                        .transactionResult(TransactionResultType.S)
+                                        .amount(2000L)
+                                        .transactedAt(LocalDateTime.now())
+                                        .build()))
+                        .nextCursor("nextCursor")
+                        .build());
+        //when
+        //then
+        mockMvc.perform(get("/account/1000000000/transactions?size=2&transactionType=USE"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId2"))
+                .andExpect(jsonPath("$.transactions[0].id").doesNotExist())
+                .andExpect(jsonPath("$.transactions[1].transactionType").value("CANCEL"))
+                .andExpect(jsonPath("$.nextCursor").value("nextCursor"));
+    }
+
+    @Test
+    void getTransactionHistoryFail_InvalidSize() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(get("/account/1000000000/transactions?size=1000"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+
+    @Test
+    void successExportTransactions() throws Exception {
+        //given
+        willAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"transactionId\":\"transactionId\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).given(transactionExportService).export(any(), any());
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/transaction/export?accountNumber=1000000000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"transactionId\":\"transactionId\"}\n"));
+    }
+
+    @Test
+    void exportTransactionsFail_NoFilter() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(get("/transaction/export?format=CSV"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+        verify(transactionExportService, never()).export(any(), any());
+    }
+}
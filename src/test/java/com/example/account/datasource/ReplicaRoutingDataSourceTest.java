@@ -0,0 +1,112 @@
+package com.example.account.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * H2 두 개(primary, replica)에 각각 자신의 이름을 넣어 두고, 어느 쪽에서 읽었는지 확인한다.
+ */
+class ReplicaRoutingDataSourceTest {
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                h2("primary"), h2("replica"), new ReadYourWrites(60_000L)));
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        //given
+        //when
+        //then
+        assertEquals("replica", nodeName(true));
+        assertEquals("primary", nodeName(false));
+        assertEquals("primary", jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    void readAfterWriteInSameRequestGoesToPrimary() {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        //when
+        String beforeWrite = nodeName(true);
+        nodeName(false);
+        String afterWrite = nodeName(true);
+
+        //then
+        assertEquals("replica", beforeWrite);
+        assertEquals("primary", afterWrite);
+        assertNotNull(response.getCookie(ReadYourWrites.COOKIE_NAME));
+    }
+
+    @Test
+    void readWithRecentWriteCookieGoesToPrimary() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWrites.COOKIE_NAME,
+                String.valueOf(System.currentTimeMillis() + 60_000L)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        //when
+        //then
+        assertEquals("primary", nodeName(true));
+    }
+
+    @Test
+    void readWithExpiredWriteCookieGoesToReplica() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWrites.COOKIE_NAME,
+                String.valueOf(System.currentTimeMillis() - 1L)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        //when
+        //then
+        assertEquals("replica", nodeName(true));
+    }
+
+    private String nodeName(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node(name varchar(16))");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("insert into node(name) values (?)", name);
+        return dataSource;
+    }
+}
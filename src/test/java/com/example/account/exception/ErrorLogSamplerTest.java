@@ -0,0 +1,35 @@
+package com.example.account.exception;
+
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorLogSamplerTest {
+    @Test
+    void logOncePerIntervalPerErrorCode() {
+        //given
+        ErrorLogSampler errorLogSampler = new ErrorLogSampler(60_000L);
+
+        //when
+        //then
+        assertTrue(errorLogSampler.tryAcquire(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        assertFalse(errorLogSampler.tryAcquire(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        assertTrue(errorLogSampler.tryAcquire(ErrorCode.AMOUNT_EXCEED_BALANCE));
+    }
+
+    @Test
+    void preallocatedStacklessException() {
+        //given
+        //when
+        AccountException accountException = AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+
+        //then
+        assertSame(accountException, AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        assertEquals(0, accountException.getStackTrace().length);
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK.getDescription(), accountException.getErrorMessage());
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.account.lock;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LockNodeRingTest {
+    private static final int[] REDIS_PORTS = {6395, 6396, 6397};
+    private static final int VIRTUAL_NODES = 160;
+    private static final String QUORUM_ACCOUNT = "1000000099";
+
+    private static final List<RedisServer> redisServers = new ArrayList<>();
+    private static final Map<String, RedissonClient> clients = new LinkedHashMap<>();
+    private static LockNodeRing lockNodeRing;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        for (int port : REDIS_PORTS) {
+            RedisServer redisServer = new RedisServer(port);
+            redisServer.start();
+            redisServers.add(redisServer);
+
+            Config config = new Config();
+            config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+            clients.put("127.0.0.1:" + port, Redisson.create(config));
+        }
+        lockNodeRing = new LockNodeRing(clients, new ArrayList<>(clients.values()),
+                VIRTUAL_NODES, Set.of(QUORUM_ACCOUNT), 3);
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        lockNodeRing.shutdown();
+        for (RedisServer redisServer : redisServers) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    void keysSpreadAcrossNodes() {
+        //given
+        int[] counts = new int[REDIS_PORTS.length];
+
+        //when
+        for (int i = 0; i < 3000; i++) {
+            counts[lockNodeRing.nodeOf(lockKey(String.valueOf(1_000_000_000 + i)))]++;
+        }
+
+        //then
+        for (int count : counts) {
+            assertTrue(count > 600 && count < 1400, "unbalanced ring : " + count);
+        }
+    }
+
+    @Test
+    void addingNodeMovesKeysOnlyToNewNode() {
+        //given
+        Map<String, RedissonClient> nodes = new LinkedHashMap<>(clients);
+        nodes.put("127.0.0.1:6398", mock(RedissonClient.class));
+        LockNodeRing grown = new LockNodeRing(nodes, List.of(), VIRTUAL_NODES, Set.of(), 1);
+
+        //when
+        int moved = 0;
+        for (int i = 0; i < 3000; i++) {
+            String lockKey = lockKey(String.valueOf(1_000_000_000 + i));
+            int before = lockNodeRing.nodeOf(lockKey);
+            int after = grown.nodeOf(lockKey);
+            if (before != after) {
+                assertEquals(3, after);
+                moved++;
+            }
+        }
+
+        //then
+        assertTrue(moved > 450 && moved < 1050, "moved : " + moved);
+    }
+
+    @Test
+    void lockIsHeldOnlyOnItsNode() throws InterruptedException {
+        //given
+        String accountNumber = "1000000001";
+        String lockKey = lockKey(accountNumber);
+        int node = lockNodeRing.nodeOf(lockKey);
+
+        //when
+        RLock lock = lockNodeRing.getLock(accountNumber, lockKey);
+        assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+
+        //then
+        List<RedissonClient> nodes = new ArrayList<>(clients.values());
+        for (int i = 0; i < nodes.size(); i++) {
+            assertEquals(i == node, nodes.get(i).getLock(lockKey).isLocked());
+        }
+        lockNodeRing.unlock(accountNumber, lockKey);
+        assertFalse(nodes.get(node).getLock(lockKey).isLocked());
+    }
+
+    @Test
+    void quorumAccountLocksEveryQuorumNode() throws InterruptedException {
+        //given
+        String lockKey = lockKey(QUORUM_ACCOUNT);
+
+        //when
+        RLock lock = lockNodeRing.getLock(QUORUM_ACCOUNT, lockKey);
+        assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+
+        //then
+        for (RedissonClient client : clients.values()) {
+            assertTrue(client.getLock(lockKey).isLocked());
+        }
+        lockNodeRing.unlock(QUORUM_ACCOUNT, lockKey);
+        for (RedissonClient client : clients.values()) {
+            assertFalse(client.getLock(lockKey).isLocked());
+        }
+    }
+
+    @Test
+    void pipelinedUnlockWakesWaiterAndPublishes() throws Exception {
+        //given
+        String accountNumber = "1000000002";
+        String lockKey = lockKey(accountNumber);
+        RedissonClient client = new ArrayList<>(clients.values()).get(lockNodeRing.nodeOf(lockKey));
+        CompletableFuture<String> received = new CompletableFuture<>();
+        RTopic topic = client.getTopic("test:pending-publishes", StringCodec.INSTANCE);
+        int listenerId = topic.addListener(String.class, (channel, message) -> received.complete(message));
+        assertTrue(lockNodeRing.getLock(accountNumber, lockKey).tryLock(1, 15, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            RLock lock = lockNodeRing.getLock(accountNumber, lockKey);
+            try {
+                boolean locked = lock.tryLock(10, 15, TimeUnit.SECONDS);
+                lock.unlock();
+                return locked;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+
+        //when
+        PendingPublishes.open();
+        PendingPublishes.defer("test:pending-publishes", StringCodec.INSTANCE, "balance");
+        lockNodeRing.unlock(accountNumber, lockKey, client, PendingPublishes.close());
+
+        //then
+        assertEquals("balance", received.get(5, TimeUnit.SECONDS));
+        // 해제 알림이 없으면 lock 의 남은 lease(15초)까지 기다린다.
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        topic.removeListener(listenerId);
+    }
+
+    @Test
+    void pipelinedUnlockOfLockNotHeld() {
+        //given
+        String lockKey = lockKey("1000000003");
+        RedissonClient client = new ArrayList<>(clients.values()).get(lockNodeRing.nodeOf(lockKey));
+
+        //when
+        //then
+        assertThrows(IllegalMonitorStateException.class,
+                () -> lockNodeRing.unlock("1000000003", lockKey, client, List.of()));
+    }
+
+    /**
+     * LockNodeRing 이 옮겨 온 Redisson 내부 형식(채널 이름, 소유자)이 사용 중인 Redisson 버전과 같은지
+     */
+    @Test
+    void copiedRedissonInternalsMatchRedissonLock() throws InterruptedException {
+        //given
+        String accountNumber = "1000000004";
+        String lockKey = lockKey(accountNumber);
+        RedissonClient client = new ArrayList<>(clients.values()).get(lockNodeRing.nodeOf(lockKey));
+        RLock lock = lockNodeRing.getLock(accountNumber, lockKey);
+
+        //when
+        assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+
+        //then
+        String owner = lockNodeRing.ownerOf(lockKey, Thread.currentThread().getId());
+        assertEquals(Set.of(owner), client.getMap(lockKey, StringCodec.INSTANCE).readAllKeySet());
+        assertEquals(ReflectionTestUtils.invokeMethod(lock, "getLockName", Thread.currentThread().getId()), owner);
+        assertEquals(ReflectionTestUtils.invokeMethod(lock, "getChannelName"), LockNodeRing.channelName(lockKey));
+        assertTrue(lockNodeRing.isHeldBy(lockKey, owner));
+        lockNodeRing.unlock(accountNumber, lockKey, client, List.of());
+        assertFalse(lock.isLocked());
+    }
+
+    /**
+     * UNLOCK_SCRIPT 가 RedissonLock#unlock 이 보내는 스크립트와 글자 그대로 같은지 (Redis 스크립트 캐시의 SHA1)
+     */
+    @Test
+    void unlockScriptMatchesRedissonLock() throws Exception {
+        //given
+        String accountNumber = "1000000006";
+        String lockKey = lockKey(accountNumber);
+        RedissonClient client = new ArrayList<>(clients.values()).get(lockNodeRing.nodeOf(lockKey));
+        RLock lock = lockNodeRing.getLock(accountNumber, lockKey);
+        assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+        client.getScript().scriptFlush();
+
+        //when
+        lock.unlock();
+
+        //then
+        assertEquals(List.of(true), client.getScript().scriptExists(sha1(LockNodeRing.UNLOCK_SCRIPT)));
+    }
+
+    @Test
+    void pipelinedUnlockKeepsReentrantLock() throws InterruptedException {
+        //given
+        String accountNumber = "1000000005";
+        String lockKey = lockKey(accountNumber);
+        RedissonClient client = new ArrayList<>(clients.values()).get(lockNodeRing.nodeOf(lockKey));
+        RLock lock = lockNodeRing.getLock(accountNumber, lockKey);
+        assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+        assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+
+        //when
+        lockNodeRing.unlock(accountNumber, lockKey, 60_000L, client, List.of(), batch -> {
+        });
+
+        //then
+        assertTrue(lock.isHeldByCurrentThread());
+        assertEquals(1, lock.getHoldCount());
+        // 남은 lock 의 만료 시간을 leaseMs 로 다시 정한다. (RedissonLock 과 같다)
+        assertTrue(lock.remainTimeToLive() > 15_000L);
+        lockNodeRing.unlock(accountNumber, lockKey, client, List.of());
+        assertFalse(lock.isLocked());
+    }
+
+    private static String sha1(String script) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static String lockKey(String accountNumber) {
+        return "ACLK: " + accountNumber;
+    }
+}
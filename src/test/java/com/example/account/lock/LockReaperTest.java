@@ -0,0 +1,202 @@
+package com.example.account.lock;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.metrics.AccountMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 노드 A 가 lock 을 잡은 채로 죽었을 때 (heartbeat 없음) 노드 B 의 reaper 가 해제하는지
+ */
+class LockReaperTest {
+    private static final int REDIS_PORT = 6388;
+    private static final String REGISTRY_KEY = "test:lock-registry";
+    private static final String REAPER_KEY = "test:lock-reaper";
+    private static final String ACCOUNT_NUMBER = "1000000000";
+    private static final String LOCK_KEY = "ACLK: " + ACCOUNT_NUMBER;
+
+    private static RedisServer redisServer;
+    private static RedissonClient redissonA;
+    private static RedissonClient redissonB;
+
+    private final NodeIdentity nodeA = new NodeIdentity();
+    private final NodeIdentity nodeB = new NodeIdentity();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LockNodeRing ringA;
+    private LockRegistry registryA;
+    private NodeHeartbeat heartbeatA;
+    private LockReaper reaperB;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        redissonA = client();
+        redissonB = client();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redissonA.shutdown();
+        redissonB.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ringA = LockNodeRing.single(redissonA);
+        registryA = new LockRegistry(ringA, nodeA, REGISTRY_KEY);
+        heartbeatA = heartbeat(redissonA, nodeA);
+        reaperB = reaper(redissonB, nodeB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redissonA.getKeys().flushall();
+    }
+
+    @Test
+    void reapLockOfDeadNode() throws Exception {
+        //given
+        lockOnA();
+
+        //when
+        reaperB.reap();
+
+        //then
+        assertFalse(redissonB.getLock(LOCK_KEY).isLocked());
+        assertEquals(1.0, meterRegistry.counter("account.lock.reaped", "reason", "dead-node").count());
+        assertTrue(redissonB.getLock(LOCK_KEY).tryLock(0, 15, TimeUnit.SECONDS));
+        awaitRegistrySize(0);
+    }
+
+    @Test
+    void keepLockOfAliveNode() throws Exception {
+        //given
+        heartbeatA.beat();
+        lockOnA();
+
+        //when
+        reaperB.reap();
+
+        //then
+        assertTrue(redissonB.getLock(LOCK_KEY).isLocked());
+        assertEquals(1, reaperB.getHeldLocks().size());
+        assertTrue(reaperB.getHeldLocks().get(0).isNodeAlive());
+    }
+
+    @Test
+    void removeStaleEntryOfAliveNode() throws Exception {
+        //given
+        heartbeatA.beat();
+        ReflectionTestUtils.setField(reaperB, "staleAfterMs", 0L);
+        registryA.register(ACCOUNT_NUMBER, LOCK_KEY, Thread.currentThread().getId(), "lost", 15_000L);
+        awaitRegistrySize(1);
+        Thread.sleep(5);
+
+        //when
+        reaperB.reap();
+
+        //then
+        awaitRegistrySize(0);
+        assertEquals(1.0, meterRegistry.counter("account.lock.reaped", "reason", "stale-entry").count());
+    }
+
+    @Test
+    void onlyOneNodeReaps() throws Exception {
+        //given
+        reaperB.reap();
+        LockReaper reaperC = reaper(redissonA, new NodeIdentity());
+        lockOnA();
+
+        //when
+        reaperC.reap();
+
+        //then
+        assertTrue(redissonB.getLock(LOCK_KEY).isLocked());
+        reaperB.reap();
+        assertFalse(redissonB.getLock(LOCK_KEY).isLocked());
+    }
+
+    @Test
+    void unregisterInUnlockBatch() throws Exception {
+        //given
+        RLock lock = ringA.getLock(ACCOUNT_NUMBER, LOCK_KEY);
+        assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+        long threadId = Thread.currentThread().getId();
+        registryA.register(ACCOUNT_NUMBER, LOCK_KEY, threadId, "request", 15_000L);
+
+        //when
+        // 기록의 응답을 기다리지 않고 바로 놓아도 기록이 남지 않는다.
+        ringA.unlock(ACCOUNT_NUMBER, LOCK_KEY, 15_000L, redissonA, List.of(),
+                batch -> registryA.unregister(batch, LOCK_KEY, threadId));
+
+        //then
+        assertFalse(lock.isLocked());
+        assertTrue(registryA.getHolders().isEmpty());
+    }
+
+    /**
+     * 다른 스레드에서 lock 을 잡고 기록한 뒤 놓지 않는다. (요청 도중 죽은 노드)
+     */
+    private void lockOnA() throws Exception {
+        CompletableFuture.runAsync(() -> {
+            RLock lock = ringA.getLock(ACCOUNT_NUMBER, LOCK_KEY);
+            try {
+                assertTrue(lock.tryLock(1, 15, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            Thread thread = Thread.currentThread();
+            registryA.register(ACCOUNT_NUMBER, LOCK_KEY, thread.getId(), thread.getName(), 15_000L);
+        }).get();
+        awaitRegistrySize(1);
+    }
+
+    private void awaitRegistrySize(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (registryA.getHolders().size() != size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, registryA.getHolders().size());
+    }
+
+    private LockReaper reaper(RedissonClient redissonClient, NodeIdentity nodeIdentity) {
+        LockNodeRing ring = LockNodeRing.single(redissonClient);
+        LockReaper reaper = new LockReaper(redissonClient, nodeIdentity,
+                new LockRegistry(ring, nodeIdentity, REGISTRY_KEY),
+                heartbeat(redissonClient, nodeIdentity), ring, new AccountMetrics(meterRegistry));
+        ReflectionTestUtils.setField(reaper, "staleAfterMs", 1000L);
+        ReflectionTestUtils.setField(reaper, "reaperKey", REAPER_KEY);
+        return reaper;
+    }
+
+    private static NodeHeartbeat heartbeat(RedissonClient redissonClient, NodeIdentity nodeIdentity) {
+        return new NodeHeartbeat(redissonClient, nodeIdentity, "test:lock-node:", 1_000L, 10_000L);
+    }
+
+    private static RedissonClient client() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        return Redisson.create(config);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.account.lock;
+
+import com.example.account.config.NodeIdentity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * heartbeat 를 갱신하지 못하는 노드가 스스로 차단되는지
+ */
+class NodeHeartbeatTest {
+    private static final int REDIS_PORT = 6387;
+
+    private static RedisServer redisServer;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redisServer.stop();
+    }
+
+    @Test
+    void renewOnDedicatedThread() throws Exception {
+        //given
+        RedissonClient redissonClient = client();
+        NodeIdentity nodeIdentity = new NodeIdentity();
+        NodeHeartbeat heartbeat = new NodeHeartbeat(redissonClient, nodeIdentity, "test:lock-node:", 50L, 200L);
+
+        //when
+        heartbeat.start();
+        Thread.sleep(500);
+
+        //then
+        try {
+            assertFalse(heartbeat.isFenced());
+            assertEquals(0L, heartbeat.getEpoch());
+            assertTrue(redissonClient.getBucket("test:lock-node:" + nodeIdentity.getNodeId()).isExists());
+        } finally {
+            heartbeat.stop();
+            redissonClient.shutdown();
+        }
+    }
+
+    @Test
+    void fenceWhenHeartbeatCannotRenew() throws Exception {
+        //given
+        RedissonClient redissonClient = client();
+        NodeIdentity nodeIdentity = new NodeIdentity();
+        NodeHeartbeat heartbeat = new NodeHeartbeat(redissonClient, nodeIdentity, "test:lock-node:", 50L, 200L);
+        heartbeat.start();
+
+        //when
+        redissonClient.shutdown();
+        Thread.sleep(400);
+
+        //then
+        assertTrue(heartbeat.isFenced());
+        RedissonClient observer = client();
+        try {
+            assertEquals(Set.of(), withoutSelf(observer, nodeIdentity));
+        } finally {
+            heartbeat.stop();
+            observer.shutdown();
+        }
+    }
+
+    /**
+     * 다른 노드에서 본 살아 있는 노드 (자기 자신 제외)
+     */
+    private static Set<String> withoutSelf(RedissonClient observer, NodeIdentity nodeIdentity) {
+        NodeHeartbeat other = new NodeHeartbeat(observer, new NodeIdentity(), "test:lock-node:", 50L, 200L);
+        Set<String> alive = other.aliveNodes(Set.of(nodeIdentity.getNodeId()));
+        alive.retainAll(Set.of(nodeIdentity.getNodeId()));
+        return alive;
+    }
+
+    private static RedissonClient client() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        return Redisson.create(config);
+    }
+}
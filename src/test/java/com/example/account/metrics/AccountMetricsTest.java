@@ -0,0 +1,88 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountMetricsTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountMetrics accountMetrics = new AccountMetrics(meterRegistry);
+
+    @Test
+    void recordLockWaitByResult() {
+        //given
+        //when
+        accountMetrics.recordLockWait(TimeUnit.MILLISECONDS.toNanos(5), true);
+        accountMetrics.recordLockWait(TimeUnit.SECONDS.toNanos(1), false);
+
+        //then
+        assertEquals(1L, meterRegistry.get("account.lock.wait").tag("result", "acquired").timer().count());
+        assertEquals(1000.0, meterRegistry.get("account.lock.wait").tag("result", "failed").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void recordErrorAndAmount() {
+        //given
+        //when
+        accountMetrics.recordError(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        accountMetrics.recordError(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        accountMetrics.recordAmount(TransactionType.USE, 1000L);
+
+        //then
+        assertEquals(2.0, meterRegistry.get("account.errors")
+                .tag("errorCode", "ACCOUNT_TRANSACTION_LOCK").counter().count());
+        assertEquals(1000.0, meterRegistry.get("account.transaction.amount")
+                .tag("type", "USE").summary().totalAmount());
+    }
+
+    @Test
+    void lockLeaseCountersAreRegisteredUpFront() {
+        //given
+        //when
+        accountMetrics.recordLockLease("reused");
+
+        //then
+        assertEquals(5, meterRegistry.find("account.lock.lease").counters().size());
+        assertEquals(1.0, meterRegistry.get("account.lock.lease").tag("event", "reused").counter().count());
+        assertThrows(IllegalArgumentException.class, () -> accountMetrics.recordLockLease("unknown"));
+    }
+
+    @Test
+    void reapedLockCountersAreRegisteredUpFront() {
+        //given
+        //when
+        accountMetrics.recordLockReaped("dead-node");
+
+        //then
+        assertEquals(2, meterRegistry.find("account.lock.reaped").counters().size());
+        assertEquals(1.0, meterRegistry.get("account.lock.reaped").tag("reason", "dead-node").counter().count());
+    }
+
+    @Test
+    void perEndpointMetersAreReused() {
+        //given
+        //when
+        accountMetrics.recordServiceStatements("AccountService.createAccount(..)", 3);
+        accountMetrics.recordServiceStatements("AccountService.createAccount(..)", 5);
+        accountMetrics.recordRequestResources("/account", "SUCCESS", 1024L, 1_000L);
+        accountMetrics.recordRequestResources("/account", "SUCCESS", 2048L, -1L);
+        accountMetrics.recordRequestResources("/account", "USER_NOT_FOUND", 512L, 1_000L);
+
+        //then
+        assertEquals(2L, meterRegistry.get("account.service.statements")
+                .tag("method", "AccountService.createAccount(..)").summary().count());
+        assertEquals(3072.0, meterRegistry.get("account.request.allocated")
+                .tags("endpoint", "/account", "outcome", "SUCCESS").summary().totalAmount());
+        assertEquals(1L, meterRegistry.get("account.request.cpu.time")
+                .tags("endpoint", "/account", "outcome", "SUCCESS").timer().count());
+        assertEquals(2, meterRegistry.find("account.request.allocated").summaries().size());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.account.metrics;
+
+import com.example.account.dto.HotAccount;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotAccountProfilerTest {
+    @Test
+    void hottestAccountsFirst() {
+        //given
+        HotAccountProfiler hotAccountProfiler = new HotAccountProfiler(8);
+        for (int i = 0; i < 100; i++) {
+            hotAccountProfiler.record("1000000000", TimeUnit.MILLISECONDS.toNanos(10), true);
+        }
+        for (int i = 0; i < 10; i++) {
+            hotAccountProfiler.record("1000000001", TimeUnit.MILLISECONDS.toNanos(1), i % 2 == 0);
+        }
+
+        //when
+        List<HotAccount> hotAccounts = hotAccountProfiler.getHotAccounts(10);
+
+        //then
+        assertEquals(2, hotAccounts.size());
+        assertEquals("1000000000", hotAccounts.get(0).getAccountNumber());
+        assertEquals(100L, hotAccounts.get(0).getAttempts());
+        assertEquals(5L, hotAccounts.get(1).getFailures());
+        assertTrue(hotAccounts.get(0).getWaitP99Millis() >= 8.0);
+        assertTrue(hotAccounts.get(0).getWaitP99Millis() <= 10.0);
+    }
+
+    @Test
+    void boundedByCapacity() {
+        //given
+        HotAccountProfiler hotAccountProfiler = new HotAccountProfiler(4);
+
+        //when
+        // 전체의 1/3 이 한 계좌로 몰리고 나머지는 모두 다른 계좌
+        for (int i = 0; i < 1000; i++) {
+            hotAccountProfiler.record(String.valueOf(2000000000 + i), 0L, true);
+            if (i % 2 == 0) {
+                hotAccountProfiler.record("1000000000", 0L, true);
+            }
+        }
+        List<HotAccount> hotAccounts = hotAccountProfiler.getHotAccounts(10);
+
+        //then
+        assertEquals(4, hotAccounts.size());
+        assertEquals("1000000000", hotAccounts.get(0).getAccountNumber());
+        assertEquals(500L, hotAccounts.get(0).getAttempts());
+        assertEquals(0L, hotAccounts.get(0).getAttemptsError());
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws Exception {
+        //given
+        HotAccountProfiler hotAccountProfiler = new HotAccountProfiler(4);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(8);
+
+        //when
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread * 1000;
+            executorService.submit(() -> {
+                try {
+                    for (int i = 0; i < 1000; i++) {
+                        hotAccountProfiler.record("1000000000", 0L, true);
+                        hotAccountProfiler.record(String.valueOf(2000000000 + offset + i), 0L, true);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+        List<HotAccount> hotAccounts = hotAccountProfiler.getHotAccounts(10);
+
+        //then
+        assertEquals(4, hotAccounts.size());
+        assertEquals("1000000000", hotAccounts.get(0).getAccountNumber());
+        assertEquals(8000L, hotAccounts.get(0).getAttempts());
+    }
+
+    @Test
+    void boundedWhileTrimIsBusy() throws Exception {
+        //given
+        HotAccountProfiler hotAccountProfiler = new HotAccountProfiler(4);
+        ReentrantLock trimLock = (ReentrantLock) ReflectionTestUtils.getField(hotAccountProfiler, "trimLock");
+        Map<?, ?> entries = (Map<?, ?>) ReflectionTestUtils.getField(hotAccountProfiler, "entries");
+        trimLock.lock();
+
+        //when
+        // 다른 스레드가 정리 중인 동안 새 계좌가 계속 들어온다.
+        CompletableFuture<Void> recording = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 100; i++) {
+                hotAccountProfiler.record(String.valueOf(2000000000 + i), 0L, true);
+            }
+        });
+        Thread.sleep(200);
+
+        //then
+        try {
+            assertFalse(recording.isDone());
+            assertEquals(12, entries.size());
+        } finally {
+            trimLock.unlock();
+        }
+        recording.get(5, TimeUnit.SECONDS);
+        assertTrue(entries.size() <= 12);
+    }
+}
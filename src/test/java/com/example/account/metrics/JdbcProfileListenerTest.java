@@ -0,0 +1,77 @@
+package com.example.account.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class JdbcProfileListenerTest {
+    private final JdbcProfileListener jdbcProfileListener = new JdbcProfileListener();
+
+    @AfterEach
+    void tearDown() {
+        RequestProfile.clear();
+    }
+
+    @Test
+    void countStatementsAndAffectedRows() {
+        //given
+        RequestProfile profile = RequestProfile.start();
+        ExecutionInfo update = new ExecutionInfo();
+        update.setResult(1);
+        ExecutionInfo batch = new ExecutionInfo();
+        batch.setResult(new int[]{1, 1, 1});
+
+        //when
+        jdbcProfileListener.beforeQuery(update, List.of());
+        jdbcProfileListener.afterQuery(update, List.of());
+        jdbcProfileListener.beforeQuery(batch, List.of());
+        jdbcProfileListener.afterQuery(batch, List.of());
+
+        //then
+        assertEquals(2, profile.getStatements());
+        assertEquals(4L, profile.getRows());
+    }
+
+    @Test
+    void countFetchedRows() throws Throwable {
+        //given
+        RequestProfile profile = RequestProfile.start();
+        ResultSet resultSet = mock(ResultSet.class);
+        given(resultSet.next()).willReturn(true, true, false);
+        given(resultSet.getString(1)).willReturn("row");
+        ResultSetProxyLogic logic = jdbcProfileListener.create(resultSet, null, null);
+
+        //when
+        while ((Boolean) logic.invoke(ResultSet.class.getMethod("next"), null)) {
+            assertEquals("row", logic.invoke(ResultSet.class.getMethod("getString", int.class), new Object[]{1}));
+        }
+
+        //then
+        assertEquals(0, profile.getStatements());
+        assertEquals(2L, profile.getRows());
+        assertEquals(resultSet, logic.invoke(ProxyJdbcObject.class.getMethod("getTarget"), null));
+    }
+
+    @Test
+    void ignoreOutsideRequest() {
+        //given
+        ExecutionInfo select = new ExecutionInfo();
+
+        //when
+        jdbcProfileListener.beforeQuery(select, List.of());
+        jdbcProfileListener.afterQuery(select, List.of());
+
+        //then
+        assertNull(RequestProfile.current());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RequestProfileFilterTest {
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Test
+    void recordResourcesPerEndpointAndOutcome() throws Exception {
+        //given
+        RequestProfileFilter requestProfileFilter = new RequestProfileFilter(accountMetrics);
+        ReflectionTestUtils.setField(requestProfileFilter, "jdbcEnabled", true);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/transaction/use");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/transaction/use");
+        MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                RequestProfile.markError(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            }
+        });
+
+        //when
+        requestProfileFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        //then
+        verify(accountMetrics, times(1)).recordRequestResources(
+                eq("POST /transaction/use"), eq("AMOUNT_EXCEED_BALANCE"), anyLong(), anyLong());
+        verify(accountMetrics, times(1)).recordRequestSql(eq("POST /transaction/use"), any());
+        RequestProfile profile = (RequestProfile) request.getAttribute(RequestProfile.ATTRIBUTE);
+        assertEquals("AMOUNT_EXCEED_BALANCE", profile.getOutcome());
+        assertNull(RequestProfile.current());
+    }
+
+    @Test
+    void skipSqlMetricsWhenJdbcProfilingDisabled() throws Exception {
+        //given
+        RequestProfileFilter requestProfileFilter = new RequestProfileFilter(accountMetrics);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/account");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/account");
+
+        //when
+        requestProfileFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        //then
+        verify(accountMetrics, times(1)).recordRequestResources(
+                eq("GET /account"), eq("SUCCESS"), anyLong(), anyLong());
+        verify(accountMetrics, never()).recordRequestSql(any(), any());
+        verify(accountMetrics, never()).recordStatementBudgetExceeded(any());
+    }
+}
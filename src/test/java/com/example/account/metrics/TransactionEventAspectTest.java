@@ -0,0 +1,63 @@
+package com.example.account.metrics;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionEventAspectTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private final TransactionEventAspect transactionEventAspect = new TransactionEventAspect();
+
+    @Test
+    void recordFailedOperationWithErrorCode(@TempDir Path tempDir) throws Throwable {
+        //given
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("useBalance");
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        Path dump = tempDir.resolve("account.jfr");
+
+        //when
+        try (Recording recording = new Recording()) {
+            recording.enable(TransactionOperationEvent.class);
+            recording.start();
+            assertThrows(AccountException.class,
+                    () -> transactionEventAspect.aroundTransactionService(proceedingJoinPoint));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        //then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.account.TransactionOperation"))
+                .collect(Collectors.toList());
+        assertEquals(1, events.size());
+        assertEquals("useBalance", events.get(0).getString("operation"));
+        assertFalse(events.get(0).getBoolean("success"));
+        assertEquals("AMOUNT_EXCEED_BALANCE", events.get(0).getString("errorCode"));
+    }
+}
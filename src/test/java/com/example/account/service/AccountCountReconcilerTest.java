@@ -0,0 +1,51 @@
+package com.example.account.service;
+
+import com.example.account.repository.AccountUserCounterRepository;
+import com.example.account.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCountReconcilerTest {
+    @Mock
+    private AccountUserCounterRepository accountUserCounterRepository;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @InjectMocks
+    private AccountCountReconciler accountCountReconciler;
+
+    @Test
+    void reconcileRepairsDrift() {
+        //given
+        given(accountUserCounterRepository.reconcileActiveAccountCounts())
+                .willReturn(2);
+
+        //when
+        accountCountReconciler.reconcile();
+
+        //then
+        verify(accountUserCounterRepository, times(1)).reconcileActiveAccountCounts();
+    }
+
+    @Test
+    void reconcileFailureDoesNotPropagate() {
+        //given
+        given(accountUserCounterRepository.reconcileActiveAccountCounts())
+                .willThrow(new IllegalStateException("db down"));
+
+        //when
+        //then
+        assertDoesNotThrow(() -> accountCountReconciler.reconcile());
+    }
+}
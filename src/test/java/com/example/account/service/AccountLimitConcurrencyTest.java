@@ -0,0 +1,80 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountUserCounterRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 한 사용자에게 동시에 계좌 생성을 보내도 계좌는 10개까지만 만들어지고,
+ * 카운터가 실제 계좌 수와 같은지 확인한다.
+ */
+@SpringBootTest
+class AccountLimitConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 20;
+    private static final long USER_ID = 2_000_000L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUserCounterRepository accountUserCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentCreatesRespectAccountLimit() throws Exception {
+        //given
+        // data.sql 사용자와 겹치지 않는 아이디로 직접 넣는다.
+        long userId = USER_ID;
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at)"
+                + " values (?, 'concurrent', now(), now())", userId);
+        jdbcTemplate.update("insert into account_user_counter(account_user_id, active_account_count)"
+                + " values (?, 0)", userId);
+        AtomicInteger limited = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    accountService.createAccount(userId, 0L);
+                } catch (AccountException e) {
+                    assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, e.getErrorCode());
+                    limited.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(10, accountService.getAccountsByUserId(userId).size());
+        assertEquals(REQUESTS - 10, limited.get());
+        assertEquals(10, accountUserCounterRepository.findById(userId).get().getActiveAccountCount());
+    }
+}
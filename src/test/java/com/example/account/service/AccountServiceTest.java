@@ -2,10 +2,14 @@ package com.example.account.service;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.AccountUserCounter;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.BalanceChangedEvent;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserCounterRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.sharding.ShardRouter;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import org.junit.jupiter.api.DisplayName;
@@ -14,7 +18,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -34,6 +41,15 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountUserCounterRepository accountUserCounterRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
     @InjectMocks
     private AccountService accountService;
 
@@ -46,6 +62,8 @@ class AccountServiceTest {
         accountUser.setId(1L);
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
+        given(accountUserCounterRepository.incrementActiveAccountCount(anyLong(), anyInt()))
+                .willReturn(1);
         given(accountRepository.findFirstByOrderByIdDesc())
                 .willReturn(Optional.of(Account.builder()
                         .accountNumber("1000000012")
@@ -66,6 +84,13 @@ class AccountServiceTest {
         assertEquals(1L, accountDto.getUserId());
         assertEquals("1000000015", accountDto.getAccountNumber());
         assertEquals("1000000013", accountArgumentCaptor.getValue().getAccountNumber());
+        verify(accountUserCounterRepository, times(1)).incrementActiveAccountCount(1L, 10);
+
+        ArgumentCaptor<Object> eventArgumentCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(eventArgumentCaptor.capture());
+        BalanceChangedEvent balanceChangedEvent = (BalanceChangedEvent) eventArgumentCaptor.getValue();
+        assertEquals(1L, balanceChangedEvent.getUserId());
+        assertEquals("1000000015", balanceChangedEvent.getAccountNumber());
     }
 
     @Test
@@ -77,6 +102,8 @@ class AccountServiceTest {
         accountUser.setId(1L);
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
+        given(accountUserCounterRepository.incrementActiveAccountCount(anyLong(), anyInt()))
+                .willReturn(1);
         given(accountRepository.findFirstByOrderByIdDesc())
                 .willReturn(Optional.empty());
         given(accountRepository.save(any()))
@@ -96,6 +123,38 @@ class AccountServiceTest {
         assertEquals("1000000000", accountArgumentCaptor.getValue().getAccountNumber());
     }
 
+    @Test
+    void createAccountWithoutCounter() {
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .name("Pobi")
+                .build();
+        accountUser.setId(1L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountUserCounterRepository.incrementActiveAccountCount(anyLong(), anyInt()))
+                .willReturn(0);
+        given(accountUserCounterRepository.existsById(anyLong()))
+                .willReturn(false);
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.empty());
+        given(accountRepository.save(any()))
+                .willReturn(Account.builder()
+                        .accountUser(accountUser)
+                        .accountNumber("1000000000")
+                        .build());
+
+        ArgumentCaptor<AccountUserCounter> counterArgumentCaptor = ArgumentCaptor.forClass(AccountUserCounter.class);
+
+        //when
+        accountService.createAccount(1L, 10000L);
+
+        //then
+        verify(accountUserCounterRepository, times(1)).saveAndFlush(counterArgumentCaptor.capture());
+        assertEquals(1L, counterArgumentCaptor.getValue().getAccountUserId());
+        assertEquals(1, counterArgumentCaptor.getValue().getActiveAccountCount());
+    }
+
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound() {
@@ -121,8 +180,10 @@ class AccountServiceTest {
         accountUser.setId(1L);
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
-        given(accountRepository.countByAccountUser(any()))
-                .willReturn(10);
+        given(accountUserCounterRepository.incrementActiveAccountCount(anyLong(), anyInt()))
+                .willReturn(0);
+        given(accountUserCounterRepository.existsById(anyLong()))
+                .willReturn(true);
 
         //when
         AccountException accountException = assertThrows(AccountException.class,
@@ -130,6 +191,7 @@ class AccountServiceTest {
 
         //then
         assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, accountException.getErrorCode());
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
@@ -162,6 +224,7 @@ class AccountServiceTest {
         assertEquals(AccountStatus.UNREGISTERED, accountArgumentCaptor.getValue().getAccountStatus());
         assertEquals("1231231231", accountArgumentCaptor.getValue().getAccountNumber());
         assertEquals(1L, accountDto.getUserId());
+        verify(accountUserCounterRepository, times(1)).decrementActiveAccountCount(1L);
     }
 
     @Test
@@ -282,28 +345,24 @@ class AccountServiceTest {
 
     @Test
     void getAccountsByUserIdSuccess() {
-        AccountUser accountUser = AccountUser.builder()
-                .name("ho")
-                .build();
-        accountUser.setId(1L);
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(accountUser));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
 
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findDtoByAccountUserId(anyLong()))
                 .willReturn(List.of(
-                        Account.builder()
-                                .accountUser(accountUser)
+                        AccountDto.builder()
+                                .userId(1L)
                                 .accountNumber("1231231231")
                                 .balance(1000L)
                                 .build(),
-                        Account.builder()
-                                .accountUser(accountUser)
+                        AccountDto.builder()
+                                .userId(1L)
                                 .accountNumber("1122334455")
                                 .balance(2000L)
                                 .build(),
-                        Account.builder()
-                                .accountUser(accountUser)
+                        AccountDto.builder()
+                                .userId(1L)
                                 .accountNumber("1112223331")
                                 .balance(3000L)
                                 .build()
@@ -324,8 +383,8 @@ class AccountServiceTest {
     @Test
     void getAccountsByUserIdFail_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
 
         //when
         AccountException accountException = assertThrows(AccountException.class,
@@ -0,0 +1,102 @@
+package com.example.account.service;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountUserChangedEvent;
+import com.example.account.dto.CacheInvalidationMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AccountUserCacheInvalidatorTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private RTopic topic;
+
+    private final NodeIdentity nodeIdentity = new NodeIdentity();
+
+    private AccountUserCacheInvalidator accountUserCacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        accountUserCacheInvalidator =
+                new AccountUserCacheInvalidator(redissonClient, entityManagerFactory, nodeIdentity);
+        ReflectionTestUtils.setField(accountUserCacheInvalidator, "topic", topic);
+    }
+
+    @Test
+    void publishChangedUserWithNodeId() {
+        //given
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+
+        //when
+        accountUserCacheInvalidator.onAccountUserChanged(new AccountUserChangedEvent(1L));
+
+        //then
+        verify(topic, times(1)).publish(captor.capture());
+        CacheInvalidationMessage message = (CacheInvalidationMessage) captor.getValue();
+        assertEquals(nodeIdentity.getNodeId(), message.getNodeId());
+        assertEquals(1L, message.getUserId());
+    }
+
+    @Test
+    void evictUserOnMessageFromOtherNode() {
+        //given
+        given(entityManagerFactory.getCache()).willReturn(cache);
+
+        //when
+        accountUserCacheInvalidator.onMessage(new CacheInvalidationMessage("other-node", 1L));
+
+        //then
+        verify(cache, times(1)).evict(AccountUser.class, 1L);
+        verify(cache, never()).evict(AccountUser.class);
+    }
+
+    @Test
+    void evictRegionWhenUserIdIsMissing() {
+        //given
+        given(entityManagerFactory.getCache()).willReturn(cache);
+
+        //when
+        accountUserCacheInvalidator.onMessage(new CacheInvalidationMessage("other-node", null));
+
+        //then
+        verify(cache, times(1)).evict(AccountUser.class);
+    }
+
+    @Test
+    void ignoreOwnMessage() {
+        //given
+        //when
+        accountUserCacheInvalidator.onMessage(
+                new CacheInvalidationMessage(nodeIdentity.getNodeId(), 1L));
+
+        //then
+        verifyNoInteractions(entityManagerFactory);
+    }
+}
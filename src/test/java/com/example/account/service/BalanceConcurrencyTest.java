@@ -0,0 +1,196 @@
+package com.example.account.service;
+
+import com.example.account.controller.TransactionController;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.example.account.lock.LockNodeRing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 여러 스레드에서 소수의 계좌에 잔액 사용 / 취소를 동시에 보내고,
+ * 계좌 잔액이 (초기 잔액 - 성공한 사용 합계 + 성공한 취소 합계) 와 같은지,
+ * 음수가 된 적이 없는지 확인한다. (lock 전략별 처리량은 build/reports/concurrency 에 남긴다)
+ * 기본은 Redis 한 대에 요청마다 tryLock 하는 전략이고, 다른 전략은 설정을 바꾼 하위 클래스가 실행한다.
+ * (Lease / Ring / QuorumBalanceConcurrencyTest)
+ */
+@SpringBootTest
+class BalanceConcurrencyTest {
+    private static final int ACCOUNTS = 4;
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 2000;
+    private static final long INIT_BALANCE = 200_000L;
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    protected LockNodeRing lockNodeRing;
+
+    @Autowired
+    protected LockLeaseManager lockLeaseManager;
+
+    /**
+     * 처리량 보고서 이름
+     */
+    protected String lockStrategy() {
+        return "redisson-try-lock";
+    }
+
+    /**
+     * 설정한 lock 전략이 실제로 쓰이는지 확인한다.
+     */
+    protected void assertLockStrategy(List<String> accountNumbers) {
+        assertEquals(1, lockNodeRing.getAddresses().size());
+        for (String accountNumber : accountNumbers) {
+            assertFalse(lockLeaseManager.covers(accountNumber));
+            assertFalse(lockNodeRing.isQuorum(accountNumber));
+        }
+    }
+
+    @Test
+    void concurrentUseAndCancelKeepBalanceConsistent() throws Exception {
+        //given
+        List<String> accountNumbers = new ArrayList<>();
+        List<Long> owners = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long userId = i % 3 + 1;
+            accountNumbers.add(accountService.createAccount(userId, INIT_BALANCE).getAccountNumber());
+            owners.add(userId);
+        }
+        assertLockStrategy(accountNumbers);
+
+        ConcurrentLinkedQueue<UseBalance.Response> usedTransactions = new ConcurrentLinkedQueue<>();
+        Map<ErrorCode, LongAdder> failures = new EnumMap<>(ErrorCode.class);
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            failures.put(errorCode, new LongAdder());
+        }
+        LongAdder succeeded = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    UseBalance.Response used = random.nextInt(4) == 0 ? usedTransactions.poll() : null;
+                    if (used != null) {
+                        transactionController.cancelBalance(new CancelBalance.Request(
+                                used.getTransactionId(), used.getAccountNumber(), used.getAmount()));
+                    } else {
+                        int account = random.nextInt(ACCOUNTS);
+                        usedTransactions.add(transactionController.useBalance(new UseBalance.Request(
+                                owners.get(account), accountNumbers.get(account),
+                                random.nextLong(1, 20) * 1000)));
+                    }
+                    succeeded.increment();
+                } catch (AccountException e) {
+                    failures.get(e.getErrorCode()).increment();
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        //then
+        List<Transaction> transactions = transactionRepository.findAll();
+        for (String accountNumber : accountNumbers) {
+            Account account = accountRepository.findByAccountNumber(accountNumber).get();
+            List<Transaction> accountTransactions = transactions.stream()
+                    .filter(transaction -> Objects.equals(transaction.getAccount().getId(), account.getId()))
+                    .filter(transaction -> transaction.getTransactionResultType() == TransactionResultType.S)
+                    .collect(Collectors.toList());
+
+            long used = sum(accountTransactions, TransactionType.USE);
+            long canceled = sum(accountTransactions, TransactionType.CANCEL);
+            assertEquals(INIT_BALANCE - used + canceled, account.getBalance(),
+                    "lost update on " + accountNumber);
+            assertTrue(accountTransactions.stream().allMatch(transaction -> transaction.getBalanceSnapshot() >= 0),
+                    "negative balance on " + accountNumber);
+        }
+
+        writeThroughput(lockStrategy(), succeeded.sum(), failures, elapsedNanos);
+    }
+
+    private static long sum(List<Transaction> transactions, TransactionType transactionType) {
+        return transactions.stream()
+                .filter(transaction -> transaction.getTransactionType() == transactionType)
+                .mapToLong(Transaction::getAmount)
+                .sum();
+    }
+
+    private static void writeThroughput(
+            String lockStrategy, long succeeded, Map<ErrorCode, LongAdder> failures, long elapsedNanos
+    ) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+        String failureJson = failures.entrySet().stream()
+                .filter(entry -> entry.getValue().sum() > 0)
+                .map(entry -> "\"" + entry.getKey() + "\":" + entry.getValue().sum())
+                .collect(Collectors.joining(","));
+        String json = "{\"strategy\":\"" + lockStrategy + "\""
+                + ",\"threads\":" + THREADS
+                + ",\"accounts\":" + ACCOUNTS
+                + ",\"requests\":" + REQUESTS
+                + ",\"succeeded\":" + succeeded
+                + ",\"failures\":{" + failureJson + "}"
+                + ",\"elapsedMillis\":" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                + ",\"throughputPerSecond\":" + String.format(Locale.ROOT, "%.1f", REQUESTS / seconds)
+                + "}\n";
+
+        Path reportDir = Paths.get("build", "reports", "concurrency");
+        Files.createDirectories(reportDir);
+        Files.write(reportDir.resolve(lockStrategy + ".json"), json.getBytes(StandardCharsets.UTF_8));
+    }
+}
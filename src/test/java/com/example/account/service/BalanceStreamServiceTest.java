@@ -0,0 +1,156 @@
+package com.example.account.service;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.BalanceChangedEvent;
+import com.example.account.dto.BalanceStreamStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceStreamServiceTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    private BalanceStreamService balanceStreamService;
+
+    private ExecutorService dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = Executors.newSingleThreadExecutor();
+        balanceStreamService = new BalanceStreamService(redissonClient);
+        ReflectionTestUtils.setField(balanceStreamService, "bufferSize", 2);
+        ReflectionTestUtils.setField(balanceStreamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(balanceStreamService, "dispatcher", dispatcher);
+    }
+
+    @Test
+    void dispatchOnlyToSubscribedUser() throws InterruptedException {
+        //given
+        balanceStreamService.subscribe(1L, List::of);
+        balanceStreamService.subscribe(1L, List::of);
+        balanceStreamService.subscribe(2L, List::of);
+
+        //when
+        balanceStreamService.dispatch(event(1L, 1000L, 1L));
+        awaitDispatcher();
+
+        //then
+        BalanceStreamStats stats = balanceStreamService.getStats();
+        assertEquals(3, stats.getConnections());
+        assertEquals(2L, stats.getDeliveredEvents());
+        assertEquals(0L, stats.getDroppedEvents());
+    }
+
+    @Test
+    void dropOldestWhenBufferIsFull() throws InterruptedException {
+        //given
+        CountDownLatch blocked = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        balanceStreamService.subscribe(1L, List::of);
+
+        //when
+        balanceStreamService.dispatch(event(1L, 1000L, 1L));
+        balanceStreamService.dispatch(event(1L, 2000L, 2L));
+        balanceStreamService.dispatch(event(1L, 3000L, 3L));
+        blocked.countDown();
+        awaitDispatcher();
+
+        //then
+        BalanceStreamStats stats = balanceStreamService.getStats();
+        assertEquals(1L, stats.getDroppedEvents());
+        assertEquals(2L, stats.getDeliveredEvents());
+    }
+
+    @Test
+    void changeDuringSnapshotIsSentAfterSnapshot() throws InterruptedException {
+        //given
+        //when
+        balanceStreamService.subscribe(1L, () -> {
+            // 구독 등록 후, snapshot 을 읽기 전에 커밋된 변경
+            balanceStreamService.dispatch(event(1L, 2000L, 2L));
+            return List.of(account(1000L, 1L));
+        });
+        awaitDispatcher();
+
+        //then
+        BalanceStreamStats stats = balanceStreamService.getStats();
+        assertEquals(2L, stats.getDeliveredEvents());
+        assertEquals(0L, stats.getDroppedEvents());
+    }
+
+    @Test
+    void changeAlreadyInSnapshotIsNotSentTwice() throws InterruptedException {
+        //given
+        //when
+        balanceStreamService.subscribe(1L, () -> {
+            balanceStreamService.dispatch(event(1L, 1000L, 1L));
+            return List.of(account(1000L, 1L));
+        });
+        awaitDispatcher();
+
+        //then
+        assertEquals(1L, balanceStreamService.getStats().getDeliveredEvents());
+    }
+
+    @Test
+    void changeOlderThanSnapshotIsNotSent() throws InterruptedException {
+        //given
+        //when
+        balanceStreamService.subscribe(1L, () -> {
+            // snapshot 보다 먼저 커밋됐지만 늦게 도착한 변경 (1000 -> 900 중 1000)
+            balanceStreamService.dispatch(event(1L, 1000L, 1L));
+            return List.of(account(900L, 2L));
+        });
+        balanceStreamService.dispatch(event(1L, 1000L, 1L));
+        balanceStreamService.dispatch(event(1L, 800L, 3L));
+        awaitDispatcher();
+
+        //then
+        BalanceStreamStats stats = balanceStreamService.getStats();
+        assertEquals(2L, stats.getDeliveredEvents());
+        assertEquals(0L, stats.getDroppedEvents());
+    }
+
+    private void awaitDispatcher() throws InterruptedException {
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static AccountDto account(Long balance, long balanceVersion) {
+        return AccountDto.builder()
+                .accountNumber("1000000000")
+                .balance(balance)
+                .balanceVersion(balanceVersion)
+                .build();
+    }
+
+    private static BalanceChangedEvent event(Long userId, Long balance, long balanceVersion) {
+        return BalanceChangedEvent.builder()
+                .userId(userId)
+                .accountNumber("1000000000")
+                .balance(balance)
+                .balanceVersion(balanceVersion)
+                .publishedAt(System.currentTimeMillis())
+                .build();
+    }
+}
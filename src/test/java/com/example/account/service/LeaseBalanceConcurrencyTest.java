@@ -0,0 +1,30 @@
+package com.example.account.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BalanceConcurrencyTest 를 모든 계좌 lease 모드로 실행한다.
+ * (별도 컨텍스트이므로 Redis 포트와 DB 를 따로 쓴다)
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6398",
+        "spring.datasource.url=jdbc:h2:mem:lease-test",
+        "lock.lease.accounts=*"
+})
+class LeaseBalanceConcurrencyTest extends BalanceConcurrencyTest {
+    @Override
+    protected String lockStrategy() {
+        return "redisson-lease";
+    }
+
+    @Override
+    protected void assertLockStrategy(List<String> accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            assertTrue(lockLeaseManager.covers(accountNumber));
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
+import com.example.account.controller.TransactionController;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.metrics.HotAccountProfiler;
 import com.example.account.type.ErrorCode;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -11,8 +17,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -21,12 +34,34 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private HotAccountProfiler hotAccountProfiler;
+
+    @Mock
+    private LockTimeAdvisor lockTimeAdvisor;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private Signature signature;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
+    private final AccountLock accountLock = accountLockOf("useBalance");
+
+    @BeforeEach
+    void setUp() {
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.toShortString()).willReturn("TransactionController.useBalance(..)");
+        given(lockTimeAdvisor.timesFor("TransactionController.useBalance(..)", accountLock))
+                .willReturn(new LockTimeAdvisor.LockTimes(5000L, 15000L));
+    }
+
     @Test
     void lockAndUnLock() throws Throwable {
         //given
@@ -39,11 +74,11 @@ class LockAopAspectTest {
                 .build();
 
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
         //then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), eq(5000L), eq(15000L));
         verify(lockService, times(1))
                 .unLock(unLockArgumentCaptor.capture());
         assertEquals("1234", lockArgumentCaptor.getValue());
@@ -65,17 +100,47 @@ class LockAopAspectTest {
 
         //when
         assertThrows(AccountException.class,
-                () -> lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                () -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
 
 
         //then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), eq(5000L), eq(15000L));
         verify(lockService, times(1))
                 .unLock(unLockArgumentCaptor.capture());
         assertEquals("54321", lockArgumentCaptor.getValue());
         assertEquals("54321", unLockArgumentCaptor.getValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void recordLockFailureToProfiler() throws Throwable {
+        //given
+        UseBalance.Request request = UseBalance.Request.builder()
+                .userId(123L)
+                .accountNumber("1000000000")
+                .amount(1000L)
+                .build();
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock(anyString(), anyLong(), anyLong());
+
+        //when
+        assertThrows(AccountException.class,
+                () -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+        //then
+        verify(hotAccountProfiler, times(1)).record(eq("1000000000"), anyLong(), eq(false));
+        verify(lockTimeAdvisor, times(1))
+                .record(eq("TransactionController.useBalance(..)"), anyLong(), eq(false), anyLong());
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(lockService, never()).unLock(anyString());
+    }
+
+    private static AccountLock accountLockOf(String methodName) {
+        return Arrays.stream(TransactionController.class.getMethods())
+                .filter(method -> method.getName().equals(methodName))
+                .findFirst()
+                .map(method -> method.getAnnotation(AccountLock.class))
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.account.service;
+
+import com.example.account.config.NodeIdentity;
+import com.example.account.lock.LockNodeRing;
+import com.example.account.lock.LockRegistry;
+import com.example.account.metrics.AccountMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 노드 두 개(Redisson 클라이언트 두 개)가 같은 계좌를 lease 로 잠글 때
+ */
+class LockLeaseManagerTest {
+    private static final int REDIS_PORT = 6399;
+    private static final String ACCOUNT_NUMBER = "1000000000";
+
+    private static RedisServer redisServer;
+    private static RedissonClient redissonA;
+    private static RedissonClient redissonB;
+
+    private SimpleMeterRegistry meterRegistryA;
+    private LockLeaseManager nodeA;
+    private LockLeaseManager nodeB;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        redissonA = client();
+        redissonB = client();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redissonA.shutdown();
+        redissonB.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistryA = new SimpleMeterRegistry();
+        nodeA = leaseManager(redissonA, meterRegistryA);
+        nodeB = leaseManager(redissonB, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.destroy();
+        nodeB.destroy();
+        redissonA.getKeys().flushall();
+    }
+
+    @Test
+    void hotAccountReusesLease() throws Exception {
+        //given
+        //when
+        for (int i = 0; i < 100; i++) {
+            assertTrue(nodeA.tryLock(ACCOUNT_NUMBER, 1, TimeUnit.SECONDS));
+            nodeA.unlock(ACCOUNT_NUMBER);
+        }
+
+        //then
+        assertEquals(1.0, leaseCount("acquired"));
+        assertEquals(99.0, leaseCount("reused"));
+        assertTrue(redissonA.getLock(LockService.getLockKey(ACCOUNT_NUMBER)).isLocked());
+    }
+
+    @Test
+    void otherNodeCannotLockWhileRequestInProgress() throws Exception {
+        //given
+        assertTrue(nodeA.tryLock(ACCOUNT_NUMBER, 1, TimeUnit.SECONDS));
+
+        //when
+        boolean locked = CompletableFuture.supplyAsync(() -> tryLock(nodeB, 300)).get();
+
+        //then
+        assertFalse(locked);
+        nodeA.unlock(ACCOUNT_NUMBER);
+    }
+
+    @Test
+    void idleLeaseIsYieldedToOtherNode() throws Exception {
+        //given
+        assertTrue(nodeA.tryLock(ACCOUNT_NUMBER, 1, TimeUnit.SECONDS));
+        nodeA.unlock(ACCOUNT_NUMBER);
+
+        //when
+        boolean locked = CompletableFuture.supplyAsync(() -> tryLock(nodeB, 2_000)).get();
+
+        //then
+        assertTrue(locked);
+        assertEquals(1.0, leaseCount("yielded"));
+    }
+
+    @Test
+    void releaseIdleLease() throws Exception {
+        //given
+        ReflectionTestUtils.setField(nodeA, "idleMs", 0L);
+        assertTrue(nodeA.tryLock(ACCOUNT_NUMBER, 1, TimeUnit.SECONDS));
+        nodeA.unlock(ACCOUNT_NUMBER);
+
+        //when
+        nodeA.releaseIdle();
+
+        //then
+        assertEquals(1.0, leaseCount("released"));
+        assertFalse(redissonA.getLock(LockService.getLockKey(ACCOUNT_NUMBER)).isLocked());
+    }
+
+    @Test
+    void lostLeaseIsNotGrantedAgain() throws Exception {
+        //given
+        ReflectionTestUtils.setField(nodeA, "durationMs", 0L);
+        assertTrue(nodeA.tryLock(ACCOUNT_NUMBER, 1, TimeUnit.SECONDS));
+        nodeA.unlock(ACCOUNT_NUMBER);
+        // A 모르게 lease 가 사라지고 (LockReaper 해제 / 만료) B 가 잡는다.
+        assertTrue(redissonB.getKeys().delete(LockService.getLockKey(ACCOUNT_NUMBER)) > 0);
+        assertTrue(CompletableFuture.supplyAsync(() -> tryLock(nodeB, 300)).get());
+
+        //when
+        boolean locked = tryLock(nodeA, 300);
+
+        //then
+        assertFalse(locked);
+        assertEquals(1.0, leaseCount("lost"));
+        assertEquals(0.0, leaseCount("reused"));
+    }
+
+    @Test
+    void recheckRenewsLeaseWhoseTtlWasShortened() throws Exception {
+        //given
+        ReflectionTestUtils.setField(nodeA, "durationMs", 1_000L);
+        assertTrue(nodeA.tryLock(ACCOUNT_NUMBER, 1, TimeUnit.SECONDS));
+        nodeA.unlock(ACCOUNT_NUMBER);
+        Thread.sleep(1_000);
+        // watchdog 이 멈춰 A 모르게 lease 가 곧 만료되는 상황
+        assertTrue(redissonB.getMap(LockService.getLockKey(ACCOUNT_NUMBER))
+                .expire(100, TimeUnit.MILLISECONDS));
+
+        //when
+        assertTrue(nodeA.tryLock(ACCOUNT_NUMBER, 1, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        boolean locked = CompletableFuture.supplyAsync(() -> tryLock(nodeB, 300)).get();
+
+        //then
+        try {
+            assertFalse(locked);
+            assertEquals(1.0, leaseCount("reused"));
+            assertTrue(redissonA.getLock(LockService.getLockKey(ACCOUNT_NUMBER)).isLocked());
+        } finally {
+            nodeA.unlock(ACCOUNT_NUMBER);
+        }
+    }
+
+    private double leaseCount(String event) {
+        return meterRegistryA.counter("account.lock.lease", "event", event).count();
+    }
+
+    private static boolean tryLock(LockLeaseManager node, long waitMs) {
+        try {
+            return node.tryLock(ACCOUNT_NUMBER, waitMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LockLeaseManager leaseManager(RedissonClient redissonClient, SimpleMeterRegistry meterRegistry) {
+        LockNodeRing lockNodeRing = LockNodeRing.single(redissonClient);
+        NodeIdentity nodeIdentity = new NodeIdentity();
+        LockLeaseManager leaseManager = new LockLeaseManager(lockNodeRing, redissonClient, nodeIdentity,
+                new AccountMetrics(meterRegistry),
+                new LockRegistry(lockNodeRing, nodeIdentity, "test:lock-registry"));
+        ReflectionTestUtils.setField(leaseManager, "accounts", new String[]{"*"});
+        ReflectionTestUtils.setField(leaseManager, "durationMs", 5_000L);
+        ReflectionTestUtils.setField(leaseManager, "idleMs", 200L);
+        ReflectionTestUtils.setField(leaseManager, "yieldBackoffMs", 20L);
+        ReflectionTestUtils.setField(leaseManager, "topicName", "test:lock-lease-yield");
+        leaseManager.init();
+        return leaseManager;
+    }
+
+    private static RedissonClient client() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        config.setLockWatchdogTimeout(5_000);
+        return Redisson.create(config);
+    }
+}
@@ -1,57 +1,192 @@
 package com.example.account.service;
 
+import com.example.account.dto.BalanceChangedEvent;
 import com.example.account.exception.AccountException;
+import com.example.account.lock.LockNodeRing;
+import com.example.account.lock.LockRegistry;
+import com.example.account.lock.NodeHeartbeat;
+import com.example.account.lock.PendingPublishes;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBatch;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
     @Mock
-    private RedissonClient redissonClient;
+    private LockNodeRing lockNodeRing;
 
     @Mock
     private RLock rLock;
 
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private LockLeaseManager lockLeaseManager;
+
+    @Mock
+    private LockRegistry lockRegistry;
+
+    @Mock
+    private NodeHeartbeat nodeHeartbeat;
+
+    @Mock
+    private RedissonClient redissonClient;
+
     @InjectMocks
     private LockService lockService;
 
+    @AfterEach
+    void tearDown() {
+        // lock 에 성공한 테스트가 남긴 publish 버퍼와 epoch
+        PendingPublishes.close();
+        ((ThreadLocal<?>) ReflectionTestUtils.getField(LockService.class, "LOCKED_EPOCH")).remove();
+    }
+
     @Test
     void successGetLock() throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
+        given(lockNodeRing.getLock(anyString(), anyString()))
                 .willReturn(rLock);
 
         given(rLock.tryLock(anyLong(), anyLong(), any()))
                 .willReturn(true);
         //when
         //then
-        assertDoesNotThrow(() -> lockService.lock("123"));
+        assertDoesNotThrow(() -> lockService.lock("123", 1_000L, 15_000L));
     }
 
     @Test
     void failGetLock() throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
+        given(lockNodeRing.getLock(anyString(), anyString()))
                 .willReturn(rLock);
 
         given(rLock.tryLock(anyLong(), anyLong(), any()))
                 .willReturn(false);
         //when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> lockService.lock("123"));
+                () -> lockService.lock("123", 1_000L, 15_000L));
 
         //then
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verify(accountMetrics, times(1)).recordLockWait(anyLong(), eq(false));
+    }
 
+    @Test
+    void leasedAccountSkipsRedisLock() throws Exception {
+        //given
+        given(lockLeaseManager.covers("123"))
+                .willReturn(true);
+        given(lockLeaseManager.tryLock(eq("123"), anyLong(), any()))
+                .willReturn(true);
+
+        //when
+        lockService.lock("123", 1_000L, 15_000L);
+        lockService.unLock("123");
+
+        //then
+        verify(lockLeaseManager, times(1)).unlock("123");
+        verifyNoInteractions(lockNodeRing);
+    }
+
+    @Test
+    void refuseLockWhenNodeFenced() {
+        //given
+        given(nodeHeartbeat.isFenced())
+                .willReturn(true);
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lock("123", 1_000L, 15_000L));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verifyNoInteractions(lockNodeRing);
+    }
+
+    @Test
+    void rollbackWhenNodeFencedWhileLocked() throws InterruptedException {
+        //given
+        given(lockNodeRing.getLock(anyString(), anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(nodeHeartbeat.getEpoch())
+                .willReturn(0L, 1L);
+        lockService.lock("123", 1_000L, 15_000L);
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.verifyLockBeforeCommit(BalanceChangedEvent.builder()
+                        .accountNumber("123")
+                        .build()));
+        lockService.unLock("123");
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+    }
+
+    @Test
+    void skipFenceCheckWithoutLock() {
+        //given
+        //when
+        //then
+        assertDoesNotThrow(() -> lockService.verifyLockBeforeCommit(BalanceChangedEvent.builder()
+                .accountNumber("123")
+                .build()));
+        verifyNoInteractions(nodeHeartbeat);
+    }
+
+    @Test
+    void rejectNonPositiveLeaseOnRingLock() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class,
+                () -> lockService.lock("123", 1_000L, -1L));
+        verify(lockNodeRing, times(0)).getLock(anyString(), anyString());
+    }
+
+    @Test
+    void flushPublishesEvenIfLeaseUnlockFails() throws Exception {
+        //given
+        given(lockLeaseManager.covers("123"))
+                .willReturn(true);
+        given(lockLeaseManager.tryLock(eq("123"), anyLong(), any()))
+                .willReturn(true);
+        willThrow(new IllegalMonitorStateException("lease is not held for 123"))
+                .given(lockLeaseManager).unlock("123");
+        lockService.lock("123", 1_000L, 15_000L);
+        PendingPublishes.defer("test:topic", StringCodec.INSTANCE, "balance");
+        RBatch batch = mock(RBatch.class, RETURNS_DEEP_STUBS);
+        given(redissonClient.createBatch())
+                .willReturn(batch);
+
+        //when
+        assertThrows(IllegalMonitorStateException.class, () -> lockService.unLock("123"));
+
+        //then
+        verify(batch, times(1)).execute();
     }
-}
\ No newline at end of file
+}
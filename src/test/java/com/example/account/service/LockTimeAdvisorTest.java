@@ -0,0 +1,102 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.controller.TransactionController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LockTimeAdvisorTest {
+    private static final String ENDPOINT = "TransactionController.useBalance(..)";
+
+    private final AccountLock accountLock = Arrays.stream(TransactionController.class.getMethods())
+            .filter(method -> method.getName().equals("useBalance"))
+            .findFirst()
+            .map(method -> method.getAnnotation(AccountLock.class))
+            .orElseThrow();
+
+    private SimpleMeterRegistry meterRegistry;
+    private LockTimeAdvisor lockTimeAdvisor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockTimeAdvisor = new LockTimeAdvisor(meterRegistry);
+        ReflectionTestUtils.setField(lockTimeAdvisor, "enabled", true);
+        ReflectionTestUtils.setField(lockTimeAdvisor, "minSamples", 100);
+        ReflectionTestUtils.setField(lockTimeAdvisor, "leaseMultiplier", 4.0);
+        ReflectionTestUtils.setField(lockTimeAdvisor, "minLeaseMs", 1000L);
+        ReflectionTestUtils.setField(lockTimeAdvisor, "waitMultiplier", 2.0);
+        ReflectionTestUtils.setField(lockTimeAdvisor, "maxWaitMs", 15000L);
+    }
+
+    @Test
+    void annotationTimesWhenDisabled() {
+        //given
+        ReflectionTestUtils.setField(lockTimeAdvisor, "enabled", false);
+
+        //when
+        LockTimeAdvisor.LockTimes lockTimes = lockTimeAdvisor.timesFor(ENDPOINT, accountLock);
+
+        //then
+        assertEquals(accountLock.tryLockTime(), lockTimes.getWaitMs());
+        assertEquals(accountLock.leaseTime(), lockTimes.getLeaseMs());
+    }
+
+    @Test
+    void shortenLeaseForShortHolds() {
+        //given
+        lockTimeAdvisor.timesFor(ENDPOINT, accountLock);
+        for (int i = 0; i < 200; i++) {
+            lockTimeAdvisor.record(ENDPOINT, TimeUnit.MICROSECONDS.toNanos(100), true,
+                    TimeUnit.MILLISECONDS.toNanos(2));
+        }
+
+        //when
+        lockTimeAdvisor.adapt();
+
+        //then
+        LockTimeAdvisor.LockTimes lockTimes = lockTimeAdvisor.timesFor(ENDPOINT, accountLock);
+        assertEquals(1000L, lockTimes.getLeaseMs());
+        assertEquals(accountLock.tryLockTime(), lockTimes.getWaitMs());
+        assertEquals(1000.0, meterRegistry.get("account.lock.adaptive.lease").gauge().value());
+        assertEquals(1.0, meterRegistry.get("account.lock.adaptive.adjustments")
+                .tags("kind", "lease", "direction", "down").counter().count());
+    }
+
+    @Test
+    void keepLeaseWithTooFewSamples() {
+        //given
+        lockTimeAdvisor.timesFor(ENDPOINT, accountLock);
+        lockTimeAdvisor.record(ENDPOINT, 0L, true, TimeUnit.MILLISECONDS.toNanos(2));
+
+        //when
+        lockTimeAdvisor.adapt();
+
+        //then
+        assertEquals(accountLock.leaseTime(), lockTimeAdvisor.timesFor(ENDPOINT, accountLock).getLeaseMs());
+    }
+
+    @Test
+    void extendWaitAfterFailures() {
+        //given
+        lockTimeAdvisor.timesFor(ENDPOINT, accountLock);
+        lockTimeAdvisor.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(accountLock.tryLockTime()), false, 0L);
+
+        //when
+        lockTimeAdvisor.adapt();
+        lockTimeAdvisor.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(accountLock.tryLockTime()), false, 0L);
+        lockTimeAdvisor.adapt();
+
+        //then
+        assertEquals(15000L, lockTimeAdvisor.timesFor(ENDPOINT, accountLock).getWaitMs());
+        assertEquals(2.0, meterRegistry.get("account.lock.adaptive.adjustments")
+                .tags("kind", "wait", "direction", "up").counter().count());
+    }
+}
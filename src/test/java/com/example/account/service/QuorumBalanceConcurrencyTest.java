@@ -0,0 +1,35 @@
+package com.example.account.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BalanceConcurrencyTest 를 embedded redis 3대의 RedLock 으로 실행한다.
+ * 새 DB 에서 만든 계좌번호(1000000000 부터)를 모두 RedLock 계좌로 둔다.
+ * (별도 컨텍스트이므로 Redis 포트와 DB 를 따로 쓴다)
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6404",
+        "spring.datasource.url=jdbc:h2:mem:quorum-test",
+        "lock.nodes=127.0.0.1:6405,127.0.0.1:6406,127.0.0.1:6407",
+        "lock.quorum-accounts=1000000000,1000000001,1000000002,1000000003",
+        "lock.quorum-size=3"
+})
+class QuorumBalanceConcurrencyTest extends BalanceConcurrencyTest {
+    @Override
+    protected String lockStrategy() {
+        return "redisson-red-lock";
+    }
+
+    @Override
+    protected void assertLockStrategy(List<String> accountNumbers) {
+        assertEquals(3, lockNodeRing.getAddresses().size());
+        for (String accountNumber : accountNumbers) {
+            assertTrue(lockNodeRing.isQuorum(accountNumber), "not a RedLock account : " + accountNumber);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.account.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * BalanceConcurrencyTest 를 embedded redis 3대의 consistent hash ring 으로 실행한다.
+ * (별도 컨텍스트이므로 Redis 포트와 DB 를 따로 쓴다)
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6400",
+        "spring.datasource.url=jdbc:h2:mem:ring-test",
+        "lock.nodes=127.0.0.1:6401,127.0.0.1:6402,127.0.0.1:6403"
+})
+class RingBalanceConcurrencyTest extends BalanceConcurrencyTest {
+    @Override
+    protected String lockStrategy() {
+        return "redisson-ring";
+    }
+
+    @Override
+    protected void assertLockStrategy(List<String> accountNumbers) {
+        assertEquals(3, lockNodeRing.getAddresses().size());
+        for (String accountNumber : accountNumbers) {
+            assertFalse(lockLeaseManager.covers(accountNumber));
+            assertFalse(lockNodeRing.isQuorum(accountNumber));
+        }
+    }
+}
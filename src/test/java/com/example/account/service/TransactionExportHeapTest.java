@@ -0,0 +1,63 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.type.ExportFormat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 5,000,000 건 export 가 작은 고정 heap 에서 끝나는지 확인 (./gradlew heavyTest, -Xmx48m)
+ */
+@Tag("heavy")
+class TransactionExportHeapTest {
+    private static final long ROWS = 5_000_000L;
+    private static final long MAX_HEAP_BYTES = 64L * 1024 * 1024;
+
+    private final TransactionExportWriter transactionExportWriter =
+            new TransactionExportWriter(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void exportFiveMillionRowsWithGzip() throws IOException {
+        //given
+        long maxHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+        assertTrue(maxHeap <= MAX_HEAP_BYTES, "run with a small fixed heap (heavyTest task)");
+        CountingOutputStream countingOutputStream = new CountingOutputStream();
+        Stream<TransactionExportRow> rows = LongStream.range(0, ROWS)
+                .mapToObj(i -> TransactionExportWriterTest.row("transactionId" + i));
+
+        //when
+        long count;
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(countingOutputStream, 8192)) {
+            count = transactionExportWriter.write(rows, ExportFormat.NDJSON, gzipOutputStream);
+        }
+
+        //then
+        assertEquals(ROWS, count);
+        assertTrue(countingOutputStream.bytes > 0);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
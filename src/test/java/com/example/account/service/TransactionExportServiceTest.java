@@ -0,0 +1,120 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionExport;
+import com.example.account.metrics.RequestProfile;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ExportFormat;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DB 에 쌓인 거래를 export 할 때 한 번의 쿼리 커서에서 읽으면서 바로 응답에 기록하는지 확인한다.
+ * (전부 읽어 메모리에 모은 뒤 쓰면 첫 기록 시점에 이미 모든 행을 읽은 상태가 된다)
+ * 읽은 행 수를 보려고 JDBC 프로파일링을 켠다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6409",
+        "spring.datasource.url=jdbc:h2:mem:export-test",
+        "request-profile.jdbc-enabled=true"
+})
+class TransactionExportServiceTest {
+    private static final int ROWS = 2_000;
+    private static final long USER_ID = 3_000_000L;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportStreamsRowsFromDatabase() throws Exception {
+        //given
+        // data.sql 사용자와 겹치지 않는 아이디로 직접 넣는다.
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at)"
+                + " values (?, 'export', now(), now())", USER_ID);
+        String accountNumber = accountService.createAccount(USER_ID, 0L).getAccountNumber();
+        Account account = accountRepository.findByAccountNumber(accountNumber).get();
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(TransactionResultType.S)
+                    .account(account)
+                    .amount(1000L)
+                    .balanceSnapshot(0L)
+                    .transactionId("export-" + i)
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+        RowsAtFirstWrite outputStream = new RowsAtFirstWrite();
+
+        //when
+        RequestProfile profile = RequestProfile.start();
+        long count;
+        try {
+            count = transactionExportService.export(TransactionExport.Request.builder()
+                    .accountNumber(accountNumber)
+                    .format(ExportFormat.CSV)
+                    .build(), outputStream);
+        } finally {
+            RequestProfile.clear();
+        }
+
+        //then
+        assertEquals(ROWS, count);
+        String csv = outputStream.toString(StandardCharsets.UTF_8);
+        assertEquals(ROWS + 1, csv.split("\n").length);
+        assertTrue(csv.contains(accountNumber + ",export-0,"));
+        assertEquals(1, profile.getStatements());
+        assertEquals(ROWS, profile.getRows());
+        assertTrue(outputStream.rowsAtFirstWrite > 0 && outputStream.rowsAtFirstWrite < ROWS,
+                "rows fetched before the first write : " + outputStream.rowsAtFirstWrite);
+    }
+
+    /**
+     * 응답에 처음 기록될 때까지 DB 에서 읽은 행 수를 남긴다.
+     */
+    private static class RowsAtFirstWrite extends ByteArrayOutputStream {
+        private long rowsAtFirstWrite = -1;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (rowsAtFirstWrite < 0) {
+                rowsAtFirstWrite = RequestProfile.current().getRows();
+            }
+            super.write(b, off, len);
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+    }
+}
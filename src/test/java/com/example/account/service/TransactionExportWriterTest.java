@@ -0,0 +1,73 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionExportRow;
+import com.example.account.type.ExportFormat;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionExportWriterTest {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final TransactionExportWriter transactionExportWriter = new TransactionExportWriter(objectMapper);
+
+    @Test
+    void writeNdjson() throws IOException {
+        //given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        long count = transactionExportWriter.write(
+                Stream.of(row("transactionId1"), row("transactionId2")),
+                ExportFormat.NDJSON,
+                outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\\n");
+        assertEquals(2L, count);
+        assertEquals(2, lines.length);
+        assertEquals("transactionId1", objectMapper.readTree(lines[0]).get("transactionId").asText());
+        assertEquals("2022-06-01T23:26:14", objectMapper.readTree(lines[1]).get("transactedAt").asText());
+    }
+
+    @Test
+    void writeCsv() throws IOException {
+        //given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        long count = transactionExportWriter.write(
+                Stream.of(row("transactionId1"), row("transaction,\"Id2\"")),
+                ExportFormat.CSV,
+                outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\\n");
+        assertEquals(2L, count);
+        assertEquals("accountNumber,transactionId,transactionType,transactionResult,amount,balanceSnapshot,transactedAt",
+                lines[0]);
+        assertEquals("1000000000,transactionId1,USE,S,1000,9000,2022-06-01T23:26:14", lines[1]);
+        assertEquals("1000000000,\"transaction,\"\"Id2\"\"\",USE,S,1000,9000,2022-06-01T23:26:14", lines[2]);
+    }
+
+    static TransactionExportRow row(String transactionId) {
+        return TransactionExportRow.builder()
+                .accountNumber("1000000000")
+                .transactionId(transactionId)
+                .transactionType(TransactionType.USE)
+                .transactionResult(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.of(2022, 6, 1, 23, 26, 14))
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionIdGeneratorTest {
+    @Test
+    void formatSameAsUuidWithoutHyphen() {
+        //given
+        UUID uuid = UUID.randomUUID();
+
+        //when
+        String transactionId = TransactionIdGenerator.format(uuid);
+
+        //then
+        assertEquals(uuid.toString().replace("-", ""), transactionId);
+    }
+
+    @Test
+    void generate() {
+        //given
+        //when
+        String transactionId = TransactionIdGenerator.generate();
+
+        //then
+        assertEquals(32, transactionId.length());
+        assertTrue(transactionId.matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    void generateWithShardPrefix() {
+        //given
+        //when
+        String transactionId = TransactionIdGenerator.generate(0xa7);
+
+        //then
+        assertEquals(32, transactionId.length());
+        assertTrue(transactionId.startsWith("a7"));
+    }
+}
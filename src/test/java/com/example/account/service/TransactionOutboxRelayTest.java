@@ -0,0 +1,178 @@
+package com.example.account.service;
+
+import com.example.account.domain.TransactionOutbox;
+import com.example.account.repository.TransactionOutboxRepository;
+import com.example.account.sharding.ShardRouter;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionOutboxRelayTest {
+    private static final int REDIS_PORT = 6390;
+    private static final String STREAM_KEY = "test:transaction-events";
+    private static final String LOCK_KEY = "test:outbox-relay";
+
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+
+    private TransactionOutboxRelay transactionOutboxRelay;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().delete(STREAM_KEY);
+        transactionOutboxRelay = new TransactionOutboxRelay(
+                transactionOutboxRepository, redissonClient, ShardRouter.single());
+        ReflectionTestUtils.setField(transactionOutboxRelay, "streamKey", STREAM_KEY);
+        ReflectionTestUtils.setField(transactionOutboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(transactionOutboxRelay, "lockKey", LOCK_KEY);
+    }
+
+    @Test
+    void publishBatchAndCheckpoint() {
+        //given
+        given(transactionOutboxRepository.findByPublishedAtIsNullOrderByIdAsc(any()))
+                .willReturn(outboxes(1, 2));
+        ArgumentCaptor<List<Long>> idsCaptor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        int published = transactionOutboxRelay.publishBatch();
+
+        //then
+        assertEquals(2, published);
+        verify(transactionOutboxRepository, times(1))
+                .markPublished(idsCaptor.capture(), any());
+        assertEquals(List.of(1L, 2L), idsCaptor.getValue());
+
+        RStream<String, String> stream = redissonClient.getStream(STREAM_KEY, StringCodec.INSTANCE);
+        Map<StreamMessageId, Map<String, String>> messages =
+                stream.range(StreamMessageId.MIN, StreamMessageId.MAX);
+        assertEquals(2, messages.size());
+        assertEquals(List.of("transactionId1", "transactionId2"),
+                messages.values().stream()
+                        .map(entry -> entry.get("transactionId"))
+                        .collect(Collectors.toList()));
+        assertEquals(List.of("1", "2"),
+                messages.values().stream()
+                        .map(entry -> entry.get("outboxId"))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void relayDrainsFullBatches() {
+        //given
+        given(transactionOutboxRepository.findByPublishedAtIsNullOrderByIdAsc(any()))
+                .willReturn(outboxes(1, 2))
+                .willReturn(outboxes(3))
+                .willReturn(List.of());
+
+        //when
+        transactionOutboxRelay.relay();
+
+        //then
+        verify(transactionOutboxRepository, times(2)).markPublished(anyList(), any());
+        assertEquals(3L, redissonClient.getStream(STREAM_KEY, StringCodec.INSTANCE).size());
+    }
+
+    @Test
+    void skipShardRelayedByOtherNode() throws Exception {
+        //given
+        RLock lock = redissonClient.getLock(LOCK_KEY + ":0");
+        // 다른 노드 (다른 스레드) 가 0번 샤드를 발행 중
+        CompletableFuture.runAsync(() -> lock.lock(10, TimeUnit.SECONDS)).get();
+
+        //when
+        try {
+            transactionOutboxRelay.relay();
+        } finally {
+            lock.forceUnlock();
+        }
+
+        //then
+        verify(transactionOutboxRepository, never()).findByPublishedAtIsNullOrderByIdAsc(any());
+        assertEquals(0L, redissonClient.getStream(STREAM_KEY, StringCodec.INSTANCE).size());
+    }
+
+    @Test
+    void nothingToPublish() {
+        //given
+        given(transactionOutboxRepository.findByPublishedAtIsNullOrderByIdAsc(any()))
+                .willReturn(List.of());
+
+        //when
+        int published = transactionOutboxRelay.publishBatch();
+
+        //then
+        assertEquals(0, published);
+        verify(transactionOutboxRepository, never()).markPublished(anyList(), any());
+    }
+
+    private static List<TransactionOutbox> outboxes(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> {
+                    TransactionOutbox outbox = TransactionOutbox.builder()
+                            .transactionId("transactionId" + id)
+                            .accountNumber("1000000000")
+                            .transactionType(TransactionType.USE)
+                            .transactionResultType(TransactionResultType.S)
+                            .amount(1000L)
+                            .balanceSnapshot(9000L)
+                            .transactedAt(LocalDateTime.now())
+                            .build();
+                    outbox.setId(id);
+                    return outbox;
+                })
+                .collect(Collectors.toList());
+    }
+}
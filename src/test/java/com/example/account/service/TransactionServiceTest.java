@@ -3,12 +3,22 @@ package com.example.account.service;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionOutbox;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.QueryTransactions;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistory;
+import com.example.account.dto.TransactionHistoryCursor;
+import com.example.account.dto.TransactionSummary;
 import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionOutboxRepository;
 import com.example.account.repository.TransactionRepository;
+import com.example.account.sharding.ShardRouter;
+import com.example.account.sharding.ShardTemplate;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
@@ -19,15 +29,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -45,6 +64,22 @@ class TransactionServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Spy
+    private ShardTemplate shardTemplate = new ShardTemplate(
+            ShardRouter.single(), mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -97,6 +132,45 @@ class TransactionServiceTest {
         assertEquals(1000L, transactionDto.getAmount());
     }
 
+    @Test
+    @DisplayName("잔액 사용 - 거래와 함께 아웃박스 저장")
+    void useBalance_SaveOutbox() {
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .name("kim")
+                .build();
+        accountUser.setId(1L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("1231231231")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        ArgumentCaptor<TransactionOutbox> outboxCaptor = ArgumentCaptor.forClass(TransactionOutbox.class);
+
+        //when
+        transactionService.useBalance(1L, "1231231231", USE_AMOUNT);
+
+        //then
+        verify(transactionRepository, times(1)).save(transactionCaptor.capture());
+        verify(transactionOutboxRepository, times(1)).save(outboxCaptor.capture());
+        TransactionOutbox outbox = outboxCaptor.getValue();
+        assertEquals(transactionCaptor.getValue().getTransactionId(), outbox.getTransactionId());
+        assertEquals("1231231231", outbox.getAccountNumber());
+        assertEquals(TransactionType.USE, outbox.getTransactionType());
+        assertEquals(TransactionResultType.S, outbox.getTransactionResultType());
+        assertEquals(USE_AMOUNT, outbox.getAmount());
+        assertEquals(9000L, outbox.getBalanceSnapshot());
+        assertNull(outbox.getPublishedAt());
+    }
+
     @Test
     @DisplayName("잔액 사용 실패 - 해당 유저 없음")
     void useBalanceFail_UserNotFound() {
@@ -511,43 +585,66 @@ class TransactionServiceTest {
     @Test
     void successQueryTransaction() {
         //given
-        AccountUser accountUser = AccountUser.builder()
-                .name("kim")
-                .build();
-        accountUser.setId(1L);
-        Account account = Account.builder()
-                .accountUser(accountUser)
-                .accountNumber("1231231231")
-                .accountStatus(AccountStatus.IN_USE)
-                .balance(10000L)
-                .build();
-        account.setId(1L);
-        Transaction transaction = Transaction.builder()
-                .account(account)
-                .transactionType(TransactionType.USE)
-                .transactionResultType(TransactionResultType.S)
-                .amount(CANCEL_AMOUNT)
-                .balanceSnapshot(9000L)
-                .transactedAt(LocalDateTime.now())
-                .transactionId("transactionIdForQueryTransaction")
-                .build();
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(transactionDto("transactionIdForQueryTransaction")));
         //when
         TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
 
         //then
         assertEquals(TransactionType.USE, transactionDto.getTransactionType());
         assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
-        assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
+        assertEquals(USE_AMOUNT, transactionDto.getAmount());
+        assertEquals("1000000000", transactionDto.getAccountNumber());
         assertEquals("transactionIdForQueryTransaction", transactionDto.getTransactionId());
     }
 
+    @Test
+    void successQueryTransactions() {
+        //given
+        given(transactionRepository.findDtoByTransactionIdIn(anyCollection()))
+                .willReturn(List.of(
+                        transactionDto("transactionId2"),
+                        transactionDto("transactionId1")));
+
+        //when
+        QueryTransactions.Response response = transactionService.queryTransactions(
+                List.of("transactionId1", "transactionId3", "transactionId2", "transactionId1"));
+
+        //then
+        assertEquals(List.of("transactionId1", "transactionId2"),
+                response.getTransactions().stream()
+                        .map(QueryTransactionResponse::getTransactionId)
+                        .collect(Collectors.toList()));
+        assertEquals(List.of("transactionId3"), response.getNotFoundTransactionIds());
+        verify(transactionRepository, times(1)).findDtoByTransactionIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("여러 거래 확인 - 500개씩 나누어 조회")
+    void queryTransactions_Chunked() {
+        //given
+        List<String> transactionIds = IntStream.range(0, 1000)
+                .mapToObj(i -> "transactionId" + i)
+                .collect(Collectors.toList());
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        given(transactionRepository.findDtoByTransactionIdIn(anyCollection()))
+                .willReturn(List.of());
+
+        //when
+        QueryTransactions.Response response = transactionService.queryTransactions(transactionIds);
+
+        //then
+        verify(transactionRepository, times(2)).findDtoByTransactionIdIn(captor.capture());
+        assertEquals(500, captor.getAllValues().get(0).size());
+        assertEquals("transactionId500", captor.getAllValues().get(1).get(0));
+        assertEquals(1000, response.getNotFoundTransactionIds().size());
+    }
+
     @Test
     @DisplayName("거래 조회 실패 - 해당 거래 없음")
     void queryTransactionFail_TransactionNotFound() {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         //when
@@ -557,4 +654,98 @@ class TransactionServiceTest {
         //then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTransactionHistoryWithNextCursor() {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000000")
+                .build();
+        account.setId(1L);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        LocalDateTime now = LocalDateTime.now();
+        given(transactionRepository.findHistory(anyLong(), any(), any(), any(), any(), any(), anyInt()))
+                .willReturn(List.of(
+                        summary(30L, now),
+                        summary(20L, now.minusMinutes(1)),
+                        summary(10L, now.minusMinutes(2))
+                ));
+
+        //when
+        TransactionHistory.Response response = transactionService.getTransactionHistory(
+                "1000000000",
+                TransactionHistory.Request.builder().size(2).build());
+
+        //then
+        verify(transactionRepository, times(1))
+                .findHistory(1L, null, null, null, null, null, 3);
+        assertEquals(2, response.getTransactions().size());
+        assertNotNull(response.getNextCursor());
+        TransactionHistoryCursor cursor = TransactionHistoryCursor.decode(response.getNextCursor());
+        assertEquals(20L, cursor.getId());
+        assertEquals(now.minusMinutes(1), cursor.getTransactedAt());
+    }
+
+    @Test
+    void getTransactionHistoryLastPage() {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000000")
+                .build();
+        account.setId(1L);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.findHistory(anyLong(), any(), any(), any(), any(), any(), anyInt()))
+                .willReturn(List.of(summary(10L, LocalDateTime.now())));
+
+        //when
+        TransactionHistory.Response response = transactionService.getTransactionHistory(
+                "1000000000",
+                TransactionHistory.Request.builder().size(2).build());
+
+        //then
+        assertEquals(1, response.getTransactions().size());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("거래 내역 조회 실패 - 잘못된 커서")
+    void getTransactionHistoryFail_InvalidCursor() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder().build()));
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.getTransactionHistory(
+                        "1000000000",
+                        TransactionHistory.Request.builder().cursor("invalid").build()));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, accountException.getErrorCode());
+    }
+
+    private static TransactionSummary summary(Long id, LocalDateTime transactedAt) {
+        return TransactionSummary.builder()
+                .id(id)
+                .transactionId("transactionId" + id)
+                .transactionType(TransactionType.USE)
+                .transactionResult(TransactionResultType.S)
+                .amount(1000L)
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    private static TransactionDto transactionDto(String transactionId) {
+        return TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(USE_AMOUNT)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.account.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardLayoutVerifierTest {
+    private final ShardLayoutVerifier shardLayoutVerifier = new ShardLayoutVerifier();
+
+    @Test
+    void sameLayoutStarts() {
+        //given
+        String[] urls = urls("same", 2);
+        shardLayoutVerifier.verify(new ShardRouter(true, urls), dataSource(urls));
+
+        //when
+        //then
+        assertDoesNotThrow(() -> shardLayoutVerifier.verify(new ShardRouter(true, urls), dataSource(urls)));
+    }
+
+    @Test
+    void addedShardFailsStartup() {
+        //given
+        String[] urls = urls("added", 3);
+        String[] before = {urls[0], urls[1]};
+        shardLayoutVerifier.verify(new ShardRouter(true, before), dataSource(before));
+
+        //when
+        //then
+        assertThrows(IllegalStateException.class,
+                () -> shardLayoutVerifier.verify(new ShardRouter(true, urls), dataSource(urls)));
+    }
+
+    @Test
+    void reorderedShardsFailStartup() {
+        //given
+        String[] urls = urls("reordered", 2);
+        shardLayoutVerifier.verify(new ShardRouter(true, urls), dataSource(urls));
+        String[] reordered = {urls[1], urls[0]};
+
+        //when
+        //then
+        assertThrows(IllegalStateException.class,
+                () -> shardLayoutVerifier.verify(new ShardRouter(true, reordered), dataSource(reordered)));
+    }
+
+    private static String[] urls(String name, int count) {
+        String[] urls = new String[count];
+        for (int i = 0; i < count; i++) {
+            // 검증 사이에도 DB 가 남아 있도록 닫지 않는다.
+            urls[i] = "jdbc:h2:mem:shard-layout-" + name + "-" + i + ";DB_CLOSE_DELAY=-1";
+        }
+        return urls;
+    }
+
+    private static DataSource dataSource(String[] urls) {
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            shards.add(new DriverManagerDataSource(url, "sa", ""));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.account.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardRouterTest {
+    private final ShardRouter shardRouter = new ShardRouter(true, new String[]{"shard0", "shard1", "shard2"});
+
+    @Test
+    void singleShardKeepsAccountNumberSequence() {
+        //given
+        ShardRouter single = ShardRouter.single();
+
+        //when
+        //then
+        assertEquals("1000000000", single.nextAccountNumber(null));
+        assertEquals("1000000013", single.nextAccountNumber("1000000012"));
+        assertEquals(0, single.shardOfAccount("1000000013"));
+        assertEquals(0, single.shardOfTransactionId("ffffffffffffffffffffffffffffffff"));
+    }
+
+    @Test
+    void accountNumbersStayOnUserHomeShard() {
+        //given
+        for (long userId = 1; userId <= 6; userId++) {
+            int home = shardRouter.shardOfUser(userId);
+
+            //when
+            String first = ShardContext.callOn(home, () -> shardRouter.nextAccountNumber(null));
+            String second = ShardContext.callOn(home, () -> shardRouter.nextAccountNumber(first));
+
+            //then
+            assertEquals(home, shardRouter.shardOfAccount(first));
+            assertEquals(home, shardRouter.shardOfAccount(second));
+        }
+    }
+
+    @Test
+    void transactionIdEncodesShard() {
+        //given
+        //when
+        String transactionId = ShardContext.callOn(2, shardRouter::newTransactionId);
+
+        //then
+        assertEquals(2, shardRouter.shardOfTransactionId(transactionId));
+    }
+
+    @Test
+    void shardContextRestoresPrevious() {
+        //given
+        //when
+        int inner = ShardContext.callOn(1, () -> ShardContext.callOn(2, ShardContext::current));
+
+        //then
+        assertEquals(2, inner);
+        assertEquals(0, ShardContext.current());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.account.sharding;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.QueryTransactions;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * H2 3개를 샤드로 쓰고, 계좌와 거래가 계좌번호로 정해진 샤드에만 저장되는지,
+ * 거래 아이디만으로 (여러 샤드에 걸쳐서도) 조회되는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6394",
+        "sharding.enabled=true",
+        "sharding.urls=" + ShardingIntegrationTest.SHARD_0 + "," + ShardingIntegrationTest.SHARD_1
+                + "," + ShardingIntegrationTest.SHARD_2
+})
+class ShardingIntegrationTest {
+    static final String SHARD_0 = "jdbc:h2:mem:sharding-test-0";
+    static final String SHARD_1 = "jdbc:h2:mem:sharding-test-1";
+    static final String SHARD_2 = "jdbc:h2:mem:sharding-test-2";
+    private static final String[] SHARDS = {SHARD_0, SHARD_1, SHARD_2};
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Test
+    void accountsAndTransactionsLiveOnTheirShard() {
+        //given
+        List<String> accountNumbers = new ArrayList<>();
+        List<String> transactionIds = new ArrayList<>();
+        for (long userId = 1; userId <= 3; userId++) {
+            String accountNumber = accountService.createAccount(userId, 10_000L).getAccountNumber();
+            accountNumbers.add(accountNumber);
+            assertEquals(shardRouter.shardOfUser(userId), shardRouter.shardOfAccount(accountNumber));
+
+            //when
+            transactionIds.add(transactionService.useBalance(userId, accountNumber, 1_000L).getTransactionId());
+        }
+
+        //then
+        for (int i = 0; i < accountNumbers.size(); i++) {
+            int shard = shardRouter.shardOfAccount(accountNumbers.get(i));
+            assertEquals(shard, shardRouter.shardOfTransactionId(transactionIds.get(i)));
+            for (int other = 0; other < SHARDS.length; other++) {
+                assertEquals(other == shard ? 1 : 0, countTransactions(SHARDS[other], transactionIds.get(i)));
+            }
+            assertEquals(accountNumbers.get(i),
+                    transactionService.queryTransaction(transactionIds.get(i)).getAccountNumber());
+        }
+
+        List<String> query = new ArrayList<>(transactionIds);
+        query.add("00000000000000000000000000000000");
+        QueryTransactions.Response response = transactionService.queryTransactions(query);
+        assertEquals(transactionIds, response.getTransactions().stream()
+                .map(QueryTransactionResponse::getTransactionId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("00000000000000000000000000000000"), response.getNotFoundTransactionIds());
+
+        List<AccountDto> accounts = accountService.getAccountsByUserId(2L);
+        assertEquals(List.of(accountNumbers.get(1)), accounts.stream()
+                .map(AccountDto::getAccountNumber)
+                .collect(Collectors.toList()));
+    }
+
+    private static int countTransactions(String url, String transactionId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from transaction where transaction_id = ?", Integer.class, transactionId);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.account.tracing;
+
+import com.example.account.controller.TransactionController;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.service.LockService;
+import com.example.account.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class TracingAspectTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @Mock
+    private ProceedingJoinPoint controllerJoinPoint;
+
+    @Mock
+    private ProceedingJoinPoint lockJoinPoint;
+
+    @Mock
+    private ProceedingJoinPoint serviceJoinPoint;
+
+    @Mock
+    private ProceedingJoinPoint repositoryJoinPoint;
+
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+
+    private SdkTracerProvider tracerProvider;
+
+    private TracingAspect tracingAspect;
+
+    @BeforeEach
+    void setUp() {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                .build();
+        tracingAspect = new TracingAspect(tracerProvider.get("test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        tracerProvider.close();
+    }
+
+    @Test
+    void nestSpansUnderIncomingTraceparent() throws Throwable {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        signature(controllerJoinPoint, TransactionController.class, "useBalance");
+        signature(lockJoinPoint, LockService.class, "lock");
+        signature(serviceJoinPoint, TransactionService.class, "useBalance");
+        Signature repositorySignature = mock(Signature.class);
+        given(repositorySignature.getName()).willReturn("findByAccountNumber");
+        given(repositoryJoinPoint.getSignature()).willReturn(repositorySignature);
+        given(repositoryJoinPoint.getThis()).willReturn(mock(AccountRepository.class));
+
+        given(controllerJoinPoint.proceed()).willAnswer(invocation -> {
+            tracingAspect.aroundLock(lockJoinPoint, "1000000000");
+            return tracingAspect.aroundService(serviceJoinPoint);
+        });
+        given(serviceJoinPoint.proceed())
+                .willAnswer(invocation -> tracingAspect.aroundRepository(repositoryJoinPoint));
+
+        //when
+        tracingAspect.aroundController(controllerJoinPoint);
+
+        //then
+        Map<String, SpanData> spans = spansByName();
+        SpanData controller = spans.get("TransactionController.useBalance");
+        SpanData lock = spans.get("LockService.lock");
+        SpanData service = spans.get("TransactionService.useBalance");
+        SpanData repository = spans.get("AccountRepository.findByAccountNumber");
+
+        assertEquals(4, spans.size());
+        spans.values().forEach(span -> assertEquals(TRACE_ID, span.getTraceId()));
+        assertEquals(PARENT_SPAN_ID, controller.getParentSpanId());
+        assertEquals(SpanKind.SERVER, controller.getKind());
+        assertEquals(controller.getSpanId(), lock.getParentSpanId());
+        assertEquals("1000000000", lock.getAttributes().get(AttributeKey.stringKey("account.number")));
+        assertEquals(controller.getSpanId(), service.getParentSpanId());
+        assertEquals(service.getSpanId(), repository.getParentSpanId());
+        assertEquals(SpanKind.CLIENT, repository.getKind());
+    }
+
+    @Test
+    void markServiceSpanWithErrorCode() throws Throwable {
+        //given
+        signature(serviceJoinPoint, TransactionService.class, "useBalance");
+        given(serviceJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        //when
+        assertThrows(AccountException.class,
+                () -> tracingAspect.aroundService(serviceJoinPoint));
+
+        //then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        assertEquals(StatusCode.ERROR, spans.get(0).getStatus().getStatusCode());
+        assertEquals("AMOUNT_EXCEED_BALANCE",
+                spans.get(0).getAttributes().get(AttributeKey.stringKey("account.error_code")));
+    }
+
+    @Test
+    void currentTraceparentRoundTrip() throws Throwable {
+        //given
+        signature(serviceJoinPoint, TransactionService.class, "useBalance");
+        given(serviceJoinPoint.proceed()).willAnswer(invocation -> TraceContexts.currentTraceparent());
+
+        //when
+        String traceparent = (String) tracingAspect.aroundService(serviceJoinPoint);
+
+        //then
+        SpanData service = spanExporter.getFinishedSpanItems().get(0);
+        assertEquals("00-" + service.getTraceId() + "-" + service.getSpanId() + "-01", traceparent);
+        assertNull(TraceContexts.currentTraceparent());
+    }
+
+    private static void signature(ProceedingJoinPoint joinPoint, Class<?> type, String name) {
+        Signature signature = mock(Signature.class);
+        given(signature.getDeclaringType()).willReturn(type);
+        given(signature.getName()).willReturn(name);
+        given(joinPoint.getSignature()).willReturn(signature);
+    }
+
+    private Map<String, SpanData> spansByName() {
+        return spanExporter.getFinishedSpanItems().stream()
+                .collect(Collectors.toMap(SpanData::getName, Function.identity()));
+    }
+}